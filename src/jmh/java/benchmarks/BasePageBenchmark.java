@@ -0,0 +1,76 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import utilities.WebDriverManagerUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-action latency of the BasePage primitives in headless Chrome against the bundled fixture page.
+ * Run with: mvn -P benchmark verify (results in target/jmh-result.json)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class BasePageBenchmark {
+
+    private FixturePage page;
+
+    @Setup(Level.Trial)
+    public void openFixture() {
+        WebDriverManagerUtil.initializeDriver(true);
+        WebDriverManagerUtil.getDriver().get(FixturePage.url());
+        page = new FixturePage().openAuthForm();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeBrowser() {
+        WebDriverManagerUtil.quitDriver();
+        WebDriverManagerUtil.shutdownPool();
+    }
+
+    @Benchmark
+    public void clickElement() {
+        page.click();
+    }
+
+    @Benchmark
+    public void enterText() {
+        page.type("bench@example.com");
+    }
+
+    @Benchmark
+    public boolean isElementDisplayed() {
+        return page.isEmailDisplayed();
+    }
+
+    @Benchmark
+    public boolean isElementDisplayedAbsent() {
+        return page.isErrorDisplayedNow();
+    }
+
+    @Benchmark
+    public String getElementText() {
+        return page.headingText();
+    }
+
+    @Benchmark
+    public FixturePage initElements() {
+        // BasePage constructor: WebDriverWait plus PageFactory.initElements
+        return new FixturePage();
+    }
+}
@@ -0,0 +1,55 @@
+package benchmarks;
+
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import pages.BasePage;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Page object over the bundled gallery-fixture.html, exposing the BasePage primitives to JMH
+ */
+public class FixturePage extends BasePage {
+
+    @FindBy(xpath = "//span[contains(text(),'Profile') or @id='profile']")
+    private WebElement profileButton;
+
+    @FindBy(xpath = "//h2[contains(text(), 'Login to Your Account') or contains(text(), 'Create a New Account')]")
+    private WebElement formHeading;
+
+    @FindBy(xpath = "//input[@type='email' or @name='email']")
+    private WebElement emailField;
+
+    @FindBy(xpath = "//div[contains(@class, 'bg-red-50')]")
+    private WebElement errorMessage;
+
+    public static String url() {
+        return Paths.get("src/test/resources/fixtures/gallery-fixture.html").toAbsolutePath().toUri().toString();
+    }
+
+    public FixturePage openAuthForm() {
+        clickElement(profileButton);
+        return this;
+    }
+
+    public void click() {
+        clickElement(profileButton);
+    }
+
+    public void type(String text) {
+        enterText(emailField, text);
+    }
+
+    public boolean isEmailDisplayed() {
+        return isElementDisplayed(emailField);
+    }
+
+    public boolean isErrorDisplayedNow() {
+        return isElementDisplayed(errorMessage, Duration.ZERO);
+    }
+
+    public String headingText() {
+        return getElementText(formHeading);
+    }
+}
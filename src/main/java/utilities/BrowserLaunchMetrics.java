@@ -0,0 +1,92 @@
+package utilities;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Launch-time breakdown of every browser this JVM started (driver resolution, profile copy,
+ * browser start, session setup) plus how long tests waited for a pooled session, so startup
+ * flags and the prewarm count can be tuned against numbers
+ */
+public final class BrowserLaunchMetrics {
+
+    private static final Map<String, LatencyHistogram> phases = new LinkedHashMap<>();
+    private static List<String> arguments = List.of();
+
+    private BrowserLaunchMetrics() {
+    }
+
+    static Timer start() {
+        return new Timer();
+    }
+
+    static synchronized void record(String phase, long nanos) {
+        phases.computeIfAbsent(phase, key -> new LatencyHistogram()).record(nanos);
+    }
+
+    static synchronized void recordArguments(List<String> chromeArguments) {
+        arguments = List.copyOf(chromeArguments);
+    }
+
+    /**
+     * One-line summary for the suite log
+     */
+    public static synchronized String summary() {
+        LatencyHistogram total = phases.get("total");
+        if (total == null) {
+            return "No browsers launched";
+        }
+        Map<String, Object> launch = total.summary();
+        String line = String.format("%d browser launch(es), p50 %s ms, max %s ms",
+                total.count(), launch.get("p50Millis"), launch.get("maxMillis"));
+        LatencyHistogram leaseWait = phases.get("leaseWait");
+        if (leaseWait != null) {
+            line += String.format("; tests waited p95 %s ms for a session", leaseWait.summary().get("p95Millis"));
+        }
+        return line;
+    }
+
+    /**
+     * Write per-phase percentiles and the Chrome arguments they were measured with as JSON
+     */
+    public static synchronized void writeReport(Path file) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("chromeArguments", arguments);
+        Map<String, Object> byPhase = new LinkedHashMap<>();
+        phases.forEach((phase, histogram) -> byPhase.put(phase, histogram.summary()));
+        report.put("phases", byPhase);
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, new Json().toJson(report).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write browser launch report " + file, e);
+        }
+    }
+
+    /**
+     * Times consecutive phases of one launch
+     */
+    static final class Timer {
+        private final long started = System.nanoTime();
+        private long last = started;
+
+        void phase(String name) {
+            long now = System.nanoTime();
+            record(name, now - last);
+            last = now;
+        }
+
+        void finish() {
+            record("total", System.nanoTime() - started);
+        }
+    }
+}
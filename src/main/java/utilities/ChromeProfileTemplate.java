@@ -0,0 +1,162 @@
+package utilities;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Pre-built Chrome user-data-dir, created once per Chrome version under driver.cache.dir and
+ * copied for every new session, so browsers skip first-run profile initialisation. When the
+ * installed version cannot be detected there is nothing safe to key the template on, so
+ * sessions start without one rather than reuse a profile written by another Chrome.
+ */
+final class ChromeProfileTemplate {
+
+    static final boolean ENABLED = ConfigReader.getBoolean("driver.profileTemplate.enabled", false);
+
+    // Per-process lock files Chrome leaves in a profile; a copy must not inherit them
+    private static final Set<String> LOCK_FILES = Set.of("SingletonLock", "SingletonSocket", "SingletonCookie", "lockfile");
+    private static final List<Path> sessionDirs = new CopyOnWriteArrayList<>();
+
+    private static Optional<Path> template;
+    private static boolean cleanupRegistered;
+
+    private ChromeProfileTemplate() {
+    }
+
+    /**
+     * Fresh copy of the template for one browser, or empty when the Chrome version is unknown.
+     * The template itself is built on first use by starting and quitting one browser through the
+     * given launcher. Hand the session started on the copy to {@link #deleteOnQuit}.
+     */
+    static Optional<Path> newSessionDir(Function<Path, WebDriver> launcher) {
+        Optional<Path> source = template(launcher);
+        if (source.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            Path target = Files.createTempDirectory("gallery-chrome-");
+            sessionDirs.add(target);
+            copy(source.get(), target);
+            return Optional.of(target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to copy Chrome profile template " + source.get(), e);
+        }
+    }
+
+    /**
+     * Decorate a session started on a copy so quitting it deletes the copy
+     */
+    static WebDriver deleteOnQuit(WebDriver driver, Path sessionDir) {
+        return new EventFiringDecorator<>(new WebDriverListener() {
+            @Override
+            public void afterQuit(WebDriver quitDriver) {
+                discard(sessionDir);
+            }
+        }).decorate(driver);
+    }
+
+    /**
+     * Delete a copy now, e.g. when its browser failed to start
+     */
+    static void discard(Path sessionDir) {
+        if (sessionDirs.remove(sessionDir)) {
+            delete(sessionDir);
+        }
+    }
+
+    private static synchronized Optional<Path> template(Function<Path, WebDriver> launcher) {
+        if (template != null) {
+            return template;
+        }
+        Optional<String> version = DriverBinaryResolver.detectChromeVersion();
+        if (version.isEmpty()) {
+            System.err.println("Chrome version not detected; starting sessions without the profile template");
+            template = Optional.empty();
+            return template;
+        }
+        registerCleanup();
+        Path dir = DriverBinaryResolver.CACHE_DIR.resolve("chrome-profile-" + version.get());
+        if (!Files.isDirectory(dir)) {
+            build(dir, launcher);
+        }
+        template = Optional.of(dir);
+        return template;
+    }
+
+    private static void build(Path dir, Function<Path, WebDriver> launcher) {
+        try {
+            Files.createDirectories(dir.getParent());
+            Path staging = Files.createTempDirectory(dir.getParent(), dir.getFileName() + ".");
+            WebDriver driver = launcher.apply(staging);
+            try {
+                driver.get("about:blank");
+            } finally {
+                driver.quit();
+            }
+            try {
+                // Another JVM may have published the template in the meantime; either copy is fine
+                Files.move(staging, dir, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                if (!Files.isDirectory(dir)) {
+                    throw e;
+                }
+                delete(staging);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to build Chrome profile template " + dir, e);
+        }
+    }
+
+    private static void copy(Path source, Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (attrs.isRegularFile() && !LOCK_FILES.contains(file.getFileName().toString())) {
+                    Files.copy(file, target.resolve(source.relativize(file).toString()));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static void registerCleanup() {
+        if (cleanupRegistered) {
+            return;
+        }
+        cleanupRegistered = true;
+        // Backstop for copies whose browser was never quit
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> sessionDirs.forEach(ChromeProfileTemplate::delete),
+                "chrome-profile-cleanup"));
+    }
+
+    private static void delete(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            System.err.println("Could not delete Chrome profile " + dir + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package utilities;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.RemoteWebElement;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.openqa.selenium.support.ui.FluentWait;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every WebDriver command (findElement, click, sendKeys, executeScript, get, ...) of
+ * decorated drivers into per-suite and per-test histograms. Each sample is keyed by command,
+ * category (navigation, wait or a plain browser round trip), the page object method that issued
+ * it and the locator involved.
+ */
+public final class CommandLatencyRecorder implements WebDriverListener {
+
+    public static final boolean ENABLED = ConfigReader.getBoolean("metrics.commandLatency.enabled", false);
+
+    private static final CommandLatencyRecorder INSTANCE = new CommandLatencyRecorder();
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    // Proxy plumbing and accessors that never reach the browser
+    private static final Set<String> LOCAL_METHODS = Set.of("toString", "hashCode", "equals", "getId",
+            "getWrappedDriver", "getWrappedElement", "manage", "navigate", "switchTo", "timeouts", "window");
+    private static final Set<String> NAVIGATION_METHODS = Set.of("get", "to", "back", "forward", "refresh");
+    private static final List<String> FRAMEWORK_PACKAGES = List.of("java.", "javax.", "jdk.", "sun.", "com.sun.",
+            "org.openqa.", "org.testng.", "net.bytebuddy.", "utilities.", "utils.");
+    private static final int MAX_TRACKED_ELEMENTS = 10_000;
+
+    private final Map<List<String>, LatencyHistogram> suite = new ConcurrentHashMap<>();
+    private final Map<String, Map<List<String>, LatencyHistogram>> tests = new ConcurrentHashMap<>();
+    private final ThreadLocal<Map<List<String>, LatencyHistogram>> currentTest = new ThreadLocal<>();
+    private final ThreadLocal<Deque<Long>> startTimes = ThreadLocal.withInitial(ArrayDeque::new);
+    // Element id -> locator it was found with, so clicks and reads can be attributed
+    private final Map<String, String> elementLocators = new ConcurrentHashMap<>();
+
+    private CommandLatencyRecorder() {
+    }
+
+    /**
+     * Wrap a driver so every command it (and the elements it returns) executes is timed
+     */
+    static WebDriver decorate(WebDriver driver) {
+        return new EventFiringDecorator<>(INSTANCE).decorate(driver);
+    }
+
+    /**
+     * Start collecting a per-test histogram on the current thread, in addition to the suite one
+     */
+    public static void startTest(String name) {
+        INSTANCE.currentTest.set(INSTANCE.tests.computeIfAbsent(name, key -> new ConcurrentHashMap<>()));
+    }
+
+    /**
+     * Stop collecting for the current thread's test and describe where its time went
+     */
+    public static String endTest() {
+        Map<List<String>, LatencyHistogram> samples = INSTANCE.currentTest.get();
+        INSTANCE.currentTest.remove();
+        if (samples == null || samples.isEmpty()) {
+            return "No WebDriver commands recorded";
+        }
+        Map<String, LatencyHistogram> byCategory = rollUp(samples, 1);
+        long commands = 0;
+        long totalNanos = 0;
+        StringBuilder split = new StringBuilder();
+        for (Map.Entry<String, LatencyHistogram> entry : byCategory.entrySet()) {
+            commands += entry.getValue().count();
+            totalNanos += entry.getValue().totalNanos();
+            split.append(split.length() == 0 ? "" : ", ")
+                    .append(entry.getKey()).append(' ').append(entry.getValue().totalNanos() / 1_000_000).append(" ms");
+        }
+        return String.format("%d WebDriver commands, %d ms (%s)", commands, totalNanos / 1_000_000, split);
+    }
+
+    /**
+     * Write suite and per-test percentiles as JSON
+     */
+    public static void writeReport(Path file) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("suite", INSTANCE.describe(INSTANCE.suite));
+        Map<String, Object> perTest = new TreeMap<>();
+        INSTANCE.tests.forEach((name, samples) -> perTest.put(name, INSTANCE.describe(samples)));
+        report.put("tests", perTest);
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, new Json().toJson(report).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write command latency report " + file, e);
+        }
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        startTimes.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(target, method, args);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        // Failed lookups inside waits are exactly the time we want to see
+        finish(target, method, args);
+    }
+
+    @Override
+    public void afterFindElement(WebDriver driver, By locator, WebElement result) {
+        rememberLocator(result, locator);
+    }
+
+    @Override
+    public void afterFindElement(WebElement element, By locator, WebElement result) {
+        rememberLocator(result, locator);
+    }
+
+    @Override
+    public void afterFindElements(WebDriver driver, By locator, List<WebElement> result) {
+        result.forEach(element -> rememberLocator(element, locator));
+    }
+
+    @Override
+    public void afterFindElements(WebElement element, By locator, List<WebElement> result) {
+        result.forEach(found -> rememberLocator(found, locator));
+    }
+
+    private void finish(Object target, Method method, Object[] args) {
+        Long started = startTimes.get().poll();
+        if (started == null || LOCAL_METHODS.contains(method.getName())) {
+            return;
+        }
+        long elapsed = System.nanoTime() - started;
+
+        String[] origin = origin();
+        String category = NAVIGATION_METHODS.contains(method.getName()) ? "navigation" : origin[1];
+        List<String> key = List.of(method.getName(), category, origin[0], locatorOf(target, args));
+
+        suite.computeIfAbsent(key, k -> new LatencyHistogram()).record(elapsed);
+        Map<List<String>, LatencyHistogram> test = currentTest.get();
+        if (test != null) {
+            test.computeIfAbsent(key, k -> new LatencyHistogram()).record(elapsed);
+        }
+    }
+
+    /**
+     * Page object method that issued the command, and whether it ran inside an explicit wait
+     */
+    private static String[] origin() {
+        return WALKER.walk(frames -> {
+            List<Class<?>> types = new ArrayList<>();
+            List<String> methods = new ArrayList<>();
+            frames.forEach(frame -> {
+                types.add(frame.getDeclaringClass());
+                methods.add(frame.getMethodName());
+            });
+            return origin(types, methods);
+        });
+    }
+
+    /**
+     * The same, over a stack given innermost frame first
+     */
+    static String[] origin(List<Class<?>> types, List<String> methods) {
+        boolean inWait = false;
+        for (int i = 0; i < types.size(); i++) {
+            Class<?> type = types.get(i);
+            if (FluentWait.class.isAssignableFrom(type)) {
+                inWait = true;
+            } else if (isCallerFrame(type) && !isInheritedHelper(type, types.subList(i + 1, types.size()))) {
+                return new String[]{type.getSimpleName() + "." + methods.get(i), inWait ? "wait" : "roundtrip"};
+            }
+        }
+        return new String[]{"unknown", inWait ? "wait" : "roundtrip"};
+    }
+
+    private static boolean isCallerFrame(Class<?> type) {
+        String name = type.getName();
+        for (String prefix : FRAMEWORK_PACKAGES) {
+            if (name.startsWith(prefix)) {
+                return false;
+            }
+        }
+        // Package-private helpers (ElementCache) and abstract bases only ever run on behalf of a caller
+        int modifiers = type.getModifiers();
+        return Modifier.isPublic(modifiers) && !Modifier.isAbstract(modifiers);
+    }
+
+    /**
+     * A base class helper (BasePage.clickElement, BaseTest.navigateToHomePage) called from one of
+     * its subclasses further out, which is where the command is credited instead
+     */
+    private static boolean isInheritedHelper(Class<?> type, List<Class<?>> outerFrames) {
+        for (Class<?> outer : outerFrames) {
+            if (outer != type && type.isAssignableFrom(outer)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String locatorOf(Object target, Object[] args) {
+        if (args != null && args.length > 0 && args[0] instanceof By) {
+            return args[0].toString();
+        }
+        if (target instanceof WebElement) {
+            String id = elementId(target);
+            return elementLocators.getOrDefault(id == null ? "" : id, "element");
+        }
+        return "-";
+    }
+
+    private void rememberLocator(WebElement element, By locator) {
+        String id = elementId(element);
+        if (id == null) {
+            return;
+        }
+        if (elementLocators.size() > MAX_TRACKED_ELEMENTS) {
+            elementLocators.clear();
+        }
+        elementLocators.put(id, locator.toString());
+    }
+
+    private static String elementId(Object element) {
+        Object current = element;
+        while (current instanceof WrapsElement && !(current instanceof RemoteWebElement)) {
+            current = ((WrapsElement) current).getWrappedElement();
+        }
+        return current instanceof RemoteWebElement ? ((RemoteWebElement) current).getId() : null;
+    }
+
+    private Map<String, Object> describe(Map<List<String>, LatencyHistogram> samples) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("byCategory", summaries(rollUp(samples, 1)));
+        description.put("byCommand", summaries(rollUp(samples, 0)));
+        description.put("byCaller", summaries(rollUp(samples, 2)));
+
+        List<Map.Entry<List<String>, LatencyHistogram>> entries = new ArrayList<>(samples.entrySet());
+        entries.sort(Comparator.comparingLong(
+                (Map.Entry<List<String>, LatencyHistogram> entry) -> entry.getValue().totalNanos()).reversed());
+        List<Map<String, Object>> breakdown = new ArrayList<>();
+        for (Map.Entry<List<String>, LatencyHistogram> entry : entries) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("command", entry.getKey().get(0));
+            row.put("category", entry.getKey().get(1));
+            row.put("caller", entry.getKey().get(2));
+            row.put("locator", entry.getKey().get(3));
+            row.putAll(entry.getValue().summary());
+            breakdown.add(row);
+        }
+        description.put("breakdown", breakdown);
+        return description;
+    }
+
+    private static Map<String, LatencyHistogram> rollUp(Map<List<String>, LatencyHistogram> samples, int keyPart) {
+        Map<String, LatencyHistogram> rolled = new TreeMap<>();
+        samples.forEach((key, histogram) ->
+                histogram.addTo(rolled.computeIfAbsent(key.get(keyPart), k -> new LatencyHistogram())));
+        return rolled;
+    }
+
+    private static Map<String, Object> summaries(Map<String, LatencyHistogram> histograms) {
+        Map<String, Object> summaries = new LinkedHashMap<>();
+        histograms.forEach((name, histogram) -> summaries.put(name, histogram.summary()));
+        return summaries;
+    }
+}
@@ -5,6 +5,7 @@ package utilities;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.Properties;
+import java.util.Set;
 import java.util.logging.Logger;
 
 public class ConfigReader {
@@ -20,7 +21,40 @@ public class ConfigReader {
         }
     }
 
+    /**
+     * System properties (-Dkey=value) take precedence over config.properties
+     */
     public static String get(String key){
-     return properties.getProperty(key);
+     return System.getProperty(key, properties.getProperty(key));
+    }
+
+    public static String get(String key, String defaultValue) {
+        String value = get(key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warning("Invalid integer for " + key + ": " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key);
+        return value == null || value.isBlank() ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Every key defined in config.properties
+     */
+    public static Set<String> keys() {
+        return properties.stringPropertyNames();
     }
 }
@@ -0,0 +1,31 @@
+package utilities;
+
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+
+/**
+ * Where browser sessions come from, picked by driver.backend: "local" launches ChromeDriver on
+ * this machine, "remote" opens RemoteWebDriver sessions on grid.urls as GridSlotScheduler admits
+ * them. WebDriverManagerUtil configures whatever session the backend returns the same way.
+ */
+interface DriverBackend {
+
+    /**
+     * Start a session; quitting the returned driver also gives back anything the backend reserved for it
+     */
+    WebDriver start(boolean headless, BrowserLaunchMetrics.Timer timer);
+
+    static DriverBackend fromConfig() {
+        String backend = ConfigReader.get("driver.backend", "local").trim();
+        switch (backend.toLowerCase()) {
+            case "local":
+                return new LocalChromeBackend();
+            case "remote":
+                return new GridBackend(GridSlotScheduler.fromConfig(),
+                        Duration.ofSeconds(ConfigReader.getInt("grid.slotWaitSeconds", 300)));
+            default:
+                throw new IllegalArgumentException("Unknown driver.backend '" + backend + "', expected local or remote");
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package utilities;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the chromedriver binary once per JVM and remembers the result on disk,
+ * keyed by the installed Chrome version, so later runs skip WebDriverManager entirely.
+ */
+public class DriverBinaryResolver {
+
+    private static final String DRIVER_PROPERTY = "webdriver.chrome.driver";
+    private static final String CACHE_FILE = "chromedriver-resolution.properties";
+    private static final Pattern VERSION_PATTERN = Pattern.compile("(\\d+(?:\\.\\d+){1,3})");
+
+    private static final boolean OFFLINE = ConfigReader.getBoolean("driver.resolution.offline", false);
+    static final Path CACHE_DIR = Paths.get(ConfigReader.get("driver.cache.dir",
+            Paths.get(System.getProperty("user.home"), ".cache", "gallery-automation").toString()));
+
+    private static boolean resolved;
+    private static RuntimeException failure;
+
+    /**
+     * Make sure webdriver.chrome.driver points at a usable binary. The first failure is
+     * remembered and rethrown, so a broken setup surfaces once instead of once per test.
+     */
+    public static synchronized void ensureChromeDriver() {
+        if (resolved) {
+            return;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        try {
+            resolveChromeDriver();
+            resolved = true;
+        } catch (RuntimeException e) {
+            failure = new IllegalStateException("ChromeDriver resolution failed; not retried in this JVM", e);
+            throw failure;
+        }
+    }
+
+    private static void resolveChromeDriver() {
+        String preset = System.getProperty(DRIVER_PROPERTY);
+        if (preset != null && Files.isExecutable(Paths.get(preset))) {
+            return;
+        }
+
+        Optional<String> chromeVersion = detectChromeVersion();
+        // Without a detected version there is nothing to key on: never pin a driver for "unknown"
+        String cacheKey = chromeVersion.map(version -> "chrome." + version).orElse(null);
+        Path cacheFile = CACHE_DIR.resolve(CACHE_FILE);
+        Properties cache = loadCache(cacheFile);
+
+        String cachedPath = cacheKey == null ? null : cache.getProperty(cacheKey);
+        if (cachedPath != null && Files.isExecutable(Paths.get(cachedPath))) {
+            System.setProperty(DRIVER_PROPERTY, cachedPath);
+            return;
+        }
+
+        if (OFFLINE) {
+            throw new IllegalStateException("Offline mode: no cached chromedriver for "
+                    + (cacheKey == null ? "an undetected Chrome version" : cacheKey)
+                    + " in " + cacheFile + ". Resolve once online or set -D" + DRIVER_PROPERTY);
+        }
+
+        WebDriverManager manager = WebDriverManager.chromedriver();
+        chromeVersion.ifPresent(manager::browserVersion);
+        manager.setup();
+
+        String downloadedPath = manager.getDownloadedDriverPath();
+        if (downloadedPath != null) {
+            System.setProperty(DRIVER_PROPERTY, downloadedPath);
+            if (cacheKey != null) {
+                cache.setProperty(cacheKey, downloadedPath);
+                storeCache(cacheFile, cache);
+            }
+        }
+    }
+
+    /**
+     * Installed Chrome version read from the local binary, without any network access. Output goes
+     * to a temp file so a binary that never exits (chrome --version can start the browser on
+     * Windows) is killed after the timeout instead of blocking on its stdout.
+     */
+    static Optional<String> detectChromeVersion() {
+        Path output = null;
+        try {
+            Optional<Path> browserPath = WebDriverManager.chromedriver().getBrowserPath();
+            if (browserPath.isEmpty()) {
+                return Optional.empty();
+            }
+            output = Files.createTempFile("chrome-version", ".txt");
+            Process process = new ProcessBuilder(browserPath.get().toString(), "--version")
+                    .redirectErrorStream(true)
+                    .redirectOutput(output.toFile())
+                    .start();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                System.err.println("Chrome version detection timed out: " + browserPath.get());
+                return Optional.empty();
+            }
+            Matcher matcher = VERSION_PATTERN.matcher(new String(Files.readAllBytes(output), StandardCharsets.UTF_8));
+            return matcher.find() ? Optional.of(matcher.group(1)) : Optional.empty();
+        } catch (IOException e) {
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } finally {
+            if (output != null) {
+                try {
+                    Files.deleteIfExists(output);
+                } catch (IOException e) {
+                    // A killed process may still hold the file on Windows; it is only a temp file
+                }
+            }
+        }
+    }
+
+    private static Properties loadCache(Path cacheFile) {
+        Properties cache = new Properties();
+        if (Files.isRegularFile(cacheFile)) {
+            try (InputStream in = Files.newInputStream(cacheFile)) {
+                cache.load(in);
+            } catch (IOException e) {
+                System.err.println("Ignoring unreadable driver cache " + cacheFile + ": " + e.getMessage());
+            }
+        }
+        return cache;
+    }
+
+    private static void storeCache(Path cacheFile, Properties cache) {
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            // Write-then-move so concurrent JVMs never read a half-written file
+            Path temp = Files.createTempFile(cacheFile.getParent(), CACHE_FILE, ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                cache.store(out, "chromedriver binaries keyed by installed Chrome version");
+            }
+            Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Could not write driver cache " + cacheFile + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package utilities;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Bounded pool of warm browser sessions leased to tests one at a time.
+ * A session is reset between leases and quit after a fixed number of uses.
+ */
+class DriverSessionPool {
+
+    private static final String CLEAR_STORAGE_SCRIPT =
+            "try { window.localStorage.clear(); } catch (e) {}" +
+            "try { window.sessionStorage.clear(); } catch (e) {}";
+
+    static final class Session {
+        final WebDriver driver;
+        final boolean headless;
+        private int uses;
+        private boolean atBaseUrl;
+
+        private Session(WebDriver driver, boolean headless) {
+            this.driver = driver;
+            this.headless = headless;
+        }
+
+        /**
+         * True once after a reset, while the session still sits on a freshly loaded baseUrl
+         */
+        boolean consumeAtBaseUrl() {
+            boolean fresh = atBaseUrl;
+            atBaseUrl = false;
+            return fresh;
+        }
+    }
+
+    private final int maxSize;
+    private final int maxUses;
+    private final String baseUrl;
+    private final Function<Boolean, WebDriver> factory;
+
+    private final Deque<Session> idle = new ArrayDeque<>();
+    private int openSessions;
+    // Background launches in flight, and leases already waiting for one of them
+    private int warming;
+    private boolean warmingHeadless;
+    private int claims;
+    private boolean closed;
+
+    DriverSessionPool(int maxSize, int maxUses, String baseUrl, Function<Boolean, WebDriver> factory) {
+        if (maxSize < 1 || maxUses < 1) {
+            throw new IllegalArgumentException("Pool size and max uses must be positive");
+        }
+        this.maxSize = maxSize;
+        this.maxUses = maxUses;
+        this.baseUrl = baseUrl;
+        this.factory = factory;
+    }
+
+    /**
+     * Lease an idle session, launching a new browser while the pool is below capacity.
+     * Blocks until a session is released when the pool is exhausted.
+     */
+    Session lease(boolean headless, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Session evicted = null;
+        boolean claimed = false;
+
+        synchronized (this) {
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new IllegalStateException("WebDriver session pool is shut down");
+                    }
+                    Session match = takeIdle(headless);
+                    if (match != null) {
+                        return match;
+                    }
+                    if (claimed && warming < claims) {
+                        // A background launch failed or its session went to another lease
+                        claims--;
+                        claimed = false;
+                    }
+                    if (!claimed && warming > claims && warmingHeadless == headless) {
+                        // A browser already starting in the background is ready sooner than a new one
+                        claims++;
+                        claimed = true;
+                    }
+                    if (claimed) {
+                        awaitChange(deadline, timeout);
+                        continue;
+                    }
+                    if (openSessions < maxSize) {
+                        openSessions++;
+                        break;
+                    }
+                    if (!idle.isEmpty()) {
+                        // Only sessions with the other headless mode are idle: replace one of them
+                        evicted = idle.pollLast();
+                        break;
+                    }
+                    awaitChange(deadline, timeout);
+                }
+            } finally {
+                if (claimed) {
+                    claims--;
+                }
+            }
+        }
+
+        if (evicted != null) {
+            quitQuietly(evicted.driver);
+        }
+        try {
+            return new Session(factory.apply(headless), headless);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                openSessions--;
+                notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Start up to count browsers in the background, each parked on baseUrl, so the first
+     * leases find warm sessions instead of waiting for a launch
+     */
+    void prewarm(boolean headless, int count) {
+        int launches;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            launches = Math.min(count, maxSize - openSessions);
+            if (launches <= 0) {
+                return;
+            }
+            openSessions += launches;
+            warming += launches;
+            warmingHeadless = headless;
+        }
+        for (int i = 0; i < launches; i++) {
+            Thread launcher = new Thread(() -> launchInBackground(headless), "driver-prewarm-" + i);
+            launcher.setDaemon(true);
+            launcher.start();
+        }
+    }
+
+    private void launchInBackground(boolean headless) {
+        Session session = null;
+        try {
+            session = new Session(factory.apply(headless), headless);
+            if (baseUrl != null) {
+                long started = System.nanoTime();
+                session.driver.get(baseUrl);
+                session.atBaseUrl = true;
+                BrowserLaunchMetrics.record("prewarmNavigation", System.nanoTime() - started);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Background browser launch failed: " + e.getMessage());
+            if (session != null) {
+                quitQuietly(session.driver);
+                session = null;
+            }
+        }
+
+        synchronized (this) {
+            warming--;
+            if (session != null && !closed) {
+                idle.addFirst(session);
+                notifyAll();
+                return;
+            }
+            openSessions--;
+            notifyAll();
+        }
+        if (session != null) {
+            quitQuietly(session.driver);
+        }
+    }
+
+    /**
+     * Return a session to the pool, or quit it when it is used up or cannot be reset
+     */
+    void release(Session session) {
+        session.uses++;
+        boolean reusable;
+        synchronized (this) {
+            reusable = !closed && session.uses < maxUses;
+        }
+        if (reusable && reset(session)) {
+            synchronized (this) {
+                if (!closed) {
+                    idle.addFirst(session);
+                    notifyAll();
+                    return;
+                }
+            }
+        }
+        discard(session);
+    }
+
+    /**
+     * Quit a session without returning it to the pool
+     */
+    void discard(Session session) {
+        quitQuietly(session.driver);
+        synchronized (this) {
+            openSessions--;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Quit every idle session and refuse further leases; leased sessions are quit on release
+     */
+    void shutdown() {
+        List<Session> toQuit;
+        synchronized (this) {
+            closed = true;
+            toQuit = new ArrayList<>(idle);
+            openSessions -= idle.size();
+            idle.clear();
+            notifyAll();
+        }
+        for (Session session : toQuit) {
+            quitQuietly(session.driver);
+        }
+    }
+
+    private void awaitChange(long deadline, Duration timeout) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw new IllegalStateException("No WebDriver session became available within "
+                    + timeout.getSeconds() + "s (pool size " + maxSize + ")");
+        }
+        try {
+            wait(Math.max(1, remaining / 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a WebDriver session", e);
+        }
+    }
+
+    private Session takeIdle(boolean headless) {
+        Iterator<Session> iterator = idle.iterator();
+        while (iterator.hasNext()) {
+            Session session = iterator.next();
+            if (session.headless == headless) {
+                iterator.remove();
+                return session;
+            }
+        }
+        return null;
+    }
+
+    private boolean reset(Session session) {
+        WebDriver webDriver = session.driver;
+        try {
+            List<String> handles = new ArrayList<>(webDriver.getWindowHandles());
+            for (int i = 1; i < handles.size(); i++) {
+                webDriver.switchTo().window(handles.get(i)).close();
+            }
+            webDriver.switchTo().window(handles.get(0));
+
+            ((JavascriptExecutor) webDriver).executeScript(CLEAR_STORAGE_SCRIPT);
+            webDriver.manage().deleteAllCookies();
+
+            if (baseUrl != null) {
+                webDriver.get(baseUrl);
+                session.atBaseUrl = true;
+            }
+            return true;
+        } catch (WebDriverException | IndexOutOfBoundsException e) {
+            System.err.println("Discarding WebDriver session that failed to reset: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void quitQuietly(WebDriver webDriver) {
+        try {
+            webDriver.quit();
+        } catch (Exception e) {
+            System.err.println("Error while quitting pooled driver: " + e.getMessage());
+        }
+    }
+}
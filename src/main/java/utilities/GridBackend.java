@@ -0,0 +1,37 @@
+package utilities;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.time.Duration;
+
+/**
+ * RemoteWebDriver sessions on a Selenium Grid, each holding a slot from the scheduler until it quits
+ */
+final class GridBackend implements DriverBackend {
+
+    private final GridSlotScheduler scheduler;
+    private final Duration slotWait;
+
+    GridBackend(GridSlotScheduler scheduler, Duration slotWait) {
+        this.scheduler = scheduler;
+        this.slotWait = slotWait;
+    }
+
+    @Override
+    public WebDriver start(boolean headless, BrowserLaunchMetrics.Timer timer) {
+        GridSlotScheduler.Lease slot = scheduler.acquire(slotWait);
+        timer.phase("awaitSlot");
+        try {
+            // Augmented so CDP features (resource blocking) work through the grid as well
+            WebDriver driver = new Augmenter().augment(
+                    new RemoteWebDriver(slot.url(), WebDriverManagerUtil.getChromeOptions(headless, null)));
+            timer.phase("startBrowser");
+            return slot.track(driver);
+        } catch (RuntimeException e) {
+            slot.release();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package utilities;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Client-side admission for RemoteWebDriver sessions across one or more Selenium Grid endpoints
+ * (grid.urls: standalone servers or hubs). Free capacity is worked out per node from each
+ * endpoint's /status: only nodes that are UP count (not DOWN or DRAINING), and a node never offers
+ * more than its maxSessions minus the sessions it runs for any browser, however many idle chrome
+ * slots it lists. A session request takes the endpoint with the most free capacity, or queues
+ * (first come, first served) until one frees up instead of failing. Sessions we started that the
+ * last /status did not list yet (matched by session id) are counted too, so a burst of requests
+ * cannot oversubscribe a node.
+ * <p>
+ * Endpoints whose /status has no node list (Grid 3, hosted grids) are trusted to queue on their
+ * own and accept requests whenever they report ready.
+ */
+final class GridSlotScheduler {
+
+    private static final Json JSON = new Json();
+
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final String browserName;
+    private final long refreshNanos;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Deque<Object> queue = new ArrayDeque<>();
+    private long lastRefresh;
+    private boolean refreshing;
+    private boolean statusKnown;
+
+    private static final class Endpoint {
+        final URL url;
+        boolean reachable;
+        boolean ready;
+        boolean nodeInfo;
+        int freeSlots;
+        Set<String> runningSessions = new HashSet<>();
+        Map<String, Integer> freeByNode = new LinkedHashMap<>();
+        // Sessions of ours on this endpoint, being created or running
+        final Set<Lease> leases = new HashSet<>();
+
+        Endpoint(URL url) {
+            this.url = url;
+        }
+
+        int available() {
+            if (!reachable) {
+                return 0;
+            }
+            if (!nodeInfo) {
+                return ready ? Integer.MAX_VALUE : 0;
+            }
+            // Our sessions the last /status did not show yet still take a free slot
+            int unseen = 0;
+            for (Lease lease : leases) {
+                if (lease.sessionId == null || !runningSessions.contains(lease.sessionId)) {
+                    unseen++;
+                }
+            }
+            return freeSlots - unseen;
+        }
+
+        @Override
+        public String toString() {
+            return url + (reachable ? (nodeInfo ? " " + freeByNode : " (ready=" + ready + ")") : " (unreachable)")
+                    + ", " + leases.size() + " ours";
+        }
+    }
+
+    /**
+     * A reserved slot; released when the session quits (or fails to start)
+     */
+    final class Lease implements WebDriverListener {
+        private final Endpoint endpoint;
+        private String sessionId;
+        private boolean released;
+
+        private Lease(Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        URL url() {
+            return endpoint.url;
+        }
+
+        /**
+         * Decorate the session so quitting it hands the slot back
+         */
+        WebDriver track(WebDriver driver) {
+            if (driver instanceof RemoteWebDriver && ((RemoteWebDriver) driver).getSessionId() != null) {
+                synchronized (GridSlotScheduler.this) {
+                    sessionId = ((RemoteWebDriver) driver).getSessionId().toString();
+                }
+            }
+            return new EventFiringDecorator<>(this).decorate(driver);
+        }
+
+        void release() {
+            synchronized (GridSlotScheduler.this) {
+                if (!released) {
+                    released = true;
+                    endpoint.leases.remove(this);
+                    GridSlotScheduler.this.notifyAll();
+                }
+            }
+        }
+
+        @Override
+        public void afterQuit(WebDriver driver) {
+            release();
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            if ("quit".equals(method.getName())) {
+                release();
+            }
+        }
+    }
+
+    GridSlotScheduler(List<URL> urls, String browserName, Duration refreshInterval) {
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("At least one grid URL is required");
+        }
+        for (URL url : urls) {
+            endpoints.add(new Endpoint(url));
+        }
+        this.browserName = browserName;
+        this.refreshNanos = refreshInterval.toNanos();
+        this.lastRefresh = System.nanoTime() - refreshNanos;
+    }
+
+    static GridSlotScheduler fromConfig() {
+        List<URL> urls = new ArrayList<>();
+        for (String url : ConfigReader.get("grid.urls", "http://localhost:4444").split(",")) {
+            if (!url.isBlank()) {
+                try {
+                    urls.add(new URL(url.trim()));
+                } catch (MalformedURLException e) {
+                    throw new IllegalArgumentException("Invalid grid.urls entry " + url, e);
+                }
+            }
+        }
+        return new GridSlotScheduler(urls, "chrome",
+                Duration.ofMillis(ConfigReader.getInt("grid.statusRefreshMillis", 2000)));
+    }
+
+    /**
+     * Reserve a slot, waiting in line while every endpoint is full
+     */
+    Lease acquire(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Object ticket = new Object();
+        boolean announced = false;
+        synchronized (this) {
+            queue.addLast(ticket);
+        }
+        try {
+            while (true) {
+                boolean refresh;
+                synchronized (this) {
+                    if (queue.peekFirst() == ticket) {
+                        Endpoint best = null;
+                        for (Endpoint endpoint : endpoints) {
+                            if (endpoint.available() > 0 && (best == null || endpoint.available() > best.available())) {
+                                best = endpoint;
+                            }
+                        }
+                        if (best != null) {
+                            Lease lease = new Lease(best);
+                            best.leases.add(lease);
+                            return lease;
+                        }
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new IllegalStateException("No free " + browserName + " slot within "
+                                + timeout.toMillis() + " ms on " + endpoints);
+                    }
+                    refresh = !refreshing && System.nanoTime() - lastRefresh >= refreshNanos;
+                    if (refresh) {
+                        refreshing = true;
+                    } else {
+                        if (!announced && statusKnown) {
+                            System.out.println("[GridSlotScheduler] " + queue.size() + " session request(s) queued: " + endpoints);
+                            announced = true;
+                        }
+                        wait(Math.max(1, Math.min(remaining, refreshNanos) / 1_000_000));
+                    }
+                }
+                if (refresh) {
+                    refreshStatus();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a grid slot", e);
+        } finally {
+            synchronized (this) {
+                queue.remove(ticket);
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Poll every endpoint's /status outside the lock, then publish the results
+     */
+    private void refreshStatus() {
+        List<Map<String, Object>> statuses = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            statuses.add(fetchStatus(endpoint.url));
+        }
+        synchronized (this) {
+            for (int i = 0; i < endpoints.size(); i++) {
+                try {
+                    apply(endpoints.get(i), statuses.get(i));
+                } catch (RuntimeException e) {
+                    System.err.println("[GridSlotScheduler] Unreadable status from " + endpoints.get(i).url + ": " + e);
+                    endpoints.get(i).reachable = false;
+                }
+            }
+            refreshing = false;
+            statusKnown = true;
+            lastRefresh = System.nanoTime();
+            notifyAll();
+        }
+    }
+
+    private Map<String, Object> fetchStatus(URL url) {
+        try {
+            URI status = URI.create(url.toString().replaceAll("/+$", "") + "/status");
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(status).timeout(Duration.ofSeconds(5)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IOException("HTTP " + response.statusCode());
+            }
+            Map<String, Object> body = JSON.toType(response.body(), Json.MAP_TYPE);
+            Object value = body == null ? null : body.get("value");
+            if (!(value instanceof Map)) {
+                throw new IOException("no status value");
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> result = (Map<String, Object>) value;
+            return result;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[GridSlotScheduler] " + url + "/status failed: " + e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void apply(Endpoint endpoint, Map<String, Object> status) {
+        endpoint.reachable = status != null;
+        if (status == null) {
+            return;
+        }
+        endpoint.ready = Boolean.TRUE.equals(status.get("ready"));
+        Object nodes = status.get("nodes");
+        endpoint.nodeInfo = nodes instanceof List;
+        endpoint.freeSlots = 0;
+        endpoint.runningSessions = new HashSet<>();
+        endpoint.freeByNode = new LinkedHashMap<>();
+        if (!endpoint.nodeInfo) {
+            return;
+        }
+        for (Object item : (List<Object>) nodes) {
+            Map<String, Object> node = (Map<String, Object>) item;
+            boolean up = "UP".equals(node.get("availability"));
+            int idle = 0;
+            int busy = 0;
+            for (Object slotItem : (List<Object>) node.getOrDefault("slots", List.of())) {
+                Map<String, Object> slot = (Map<String, Object>) slotItem;
+                Map<String, Object> stereotype = (Map<String, Object>) slot.getOrDefault("stereotype", Map.of());
+                boolean matches = browserName.equalsIgnoreCase(String.valueOf(stereotype.get("browserName")));
+                Object session = slot.get("session");
+                if (session instanceof Map) {
+                    busy++;
+                    if (matches) {
+                        endpoint.runningSessions.add(String.valueOf(((Map<String, Object>) session).get("sessionId")));
+                    }
+                } else if (matches) {
+                    idle++;
+                }
+            }
+            // A node lists maxSessions slots per browser but runs at most maxSessions sessions in total
+            Object maxSessions = node.get("maxSessions");
+            int free = !up ? 0 : maxSessions instanceof Number
+                    ? Math.min(idle, Math.max(0, ((Number) maxSessions).intValue() - busy)) : idle;
+            endpoint.freeSlots += free;
+            endpoint.freeByNode.put(String.valueOf(node.getOrDefault("uri", node.get("id"))), free);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package utilities;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Log-bucketed latency histogram with eight buckets per power of two of microseconds,
+ * so reported percentiles are within about 9% of the recorded value
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 8;
+    private static final int BUCKETS = SUB_BUCKETS * 40;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long totalNanos;
+    private long minNanos = Long.MAX_VALUE;
+    private long maxNanos;
+
+    public synchronized void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[bucketOf(value)]++;
+        count++;
+        totalNanos += value;
+        minNanos = Math.min(minNanos, value);
+        maxNanos = Math.max(maxNanos, value);
+    }
+
+    /**
+     * Add everything recorded here to another histogram
+     */
+    synchronized void addTo(LatencyHistogram target) {
+        synchronized (target) {
+            for (int i = 0; i < BUCKETS; i++) {
+                target.counts[i] += counts[i];
+            }
+            target.count += count;
+            target.totalNanos += totalNanos;
+            target.minNanos = Math.min(target.minNanos, minNanos);
+            target.maxNanos = Math.max(target.maxNanos, maxNanos);
+        }
+    }
+
+    public synchronized long count() {
+        return count;
+    }
+
+    synchronized long totalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Count, total and percentiles in milliseconds, ready for JSON export
+     */
+    public synchronized Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", count);
+        summary.put("totalMillis", millis(totalNanos));
+        summary.put("meanMillis", count == 0 ? 0.0 : millis(totalNanos / count));
+        summary.put("minMillis", count == 0 ? 0.0 : millis(minNanos));
+        summary.put("p50Millis", millis(percentile(0.50)));
+        summary.put("p90Millis", millis(percentile(0.90)));
+        summary.put("p95Millis", millis(percentile(0.95)));
+        summary.put("p99Millis", millis(percentile(0.99)));
+        summary.put("maxMillis", millis(maxNanos));
+        return summary;
+    }
+
+    private long percentile(double fraction) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(fraction * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // Upper edge of the bucket, never beyond what was actually recorded
+                return Math.min(maxNanos, Math.max(minNanos, upperBoundNanos(i)));
+            }
+        }
+        return maxNanos;
+    }
+
+    private static int bucketOf(long nanos) {
+        double micros = Math.max(1.0, nanos / 1000.0);
+        int bucket = (int) Math.floor(Math.log(micros) / Math.log(2) * SUB_BUCKETS);
+        return Math.min(BUCKETS - 1, Math.max(0, bucket));
+    }
+
+    private static long upperBoundNanos(int bucket) {
+        return (long) (Math.pow(2, (bucket + 1) / (double) SUB_BUCKETS) * 1000);
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
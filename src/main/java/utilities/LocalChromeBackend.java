@@ -0,0 +1,38 @@
+package utilities;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+
+import java.nio.file.Path;
+
+/**
+ * ChromeDriver on this machine, optionally started from a copied profile template that is
+ * deleted again when the session quits
+ */
+final class LocalChromeBackend implements DriverBackend {
+
+    @Override
+    public WebDriver start(boolean headless, BrowserLaunchMetrics.Timer timer) {
+        DriverBinaryResolver.ensureChromeDriver();
+        timer.phase("resolveDriver");
+        Path userDataDir = null;
+        if (ChromeProfileTemplate.ENABLED) {
+            userDataDir = ChromeProfileTemplate.newSessionDir(
+                    dir -> new ChromeDriver(WebDriverManagerUtil.getChromeOptions(true, dir))).orElse(null);
+            timer.phase("copyProfile");
+        }
+        if (userDataDir == null) {
+            WebDriver driver = new ChromeDriver(WebDriverManagerUtil.getChromeOptions(headless, null));
+            timer.phase("startBrowser");
+            return driver;
+        }
+        try {
+            WebDriver driver = new ChromeDriver(WebDriverManagerUtil.getChromeOptions(headless, userDataDir));
+            timer.phase("startBrowser");
+            return ChromeProfileTemplate.deleteOnQuit(driver, userDataDir);
+        } catch (RuntimeException e) {
+            ChromeProfileTemplate.discard(userDataDir);
+            throw e;
+        }
+    }
+}
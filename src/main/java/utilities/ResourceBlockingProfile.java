@@ -0,0 +1,108 @@
+package utilities;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Requests a browser session should never make. URL patterns go to CDP Network.setBlockedURLs;
+ * resource types (Image, Font, Media, ...) are paused with Fetch.enable and failed on arrival.
+ * <p>
+ * blocking.profile picks the rule set: "functional" drops artwork, fonts and third-party
+ * scripts the assertions never look at, "full" loads everything for visual checks.
+ */
+final class ResourceBlockingProfile {
+
+    private static final Event<Map<String, Object>> REQUEST_PAUSED =
+            new Event<>("Fetch.requestPaused", input -> input.read(Json.MAP_TYPE));
+
+    private final String name;
+    private final List<String> urlPatterns;
+    private final List<String> resourceTypes;
+
+    private ResourceBlockingProfile(String name, List<String> urlPatterns, List<String> resourceTypes) {
+        this.name = name;
+        this.urlPatterns = urlPatterns;
+        this.resourceTypes = resourceTypes;
+    }
+
+    /**
+     * Profile named by blocking.profile, with its rules from blocking.&lt;profile&gt;.* keys
+     */
+    static ResourceBlockingProfile fromConfig() {
+        String profile = ConfigReader.get("blocking.profile", "full").trim();
+        return new ResourceBlockingProfile(profile,
+                split(ConfigReader.get("blocking." + profile + ".urlPatterns", "")),
+                split(ConfigReader.get("blocking." + profile + ".resourceTypes", "")));
+    }
+
+    String name() {
+        return name;
+    }
+
+    boolean isEmpty() {
+        return urlPatterns.isEmpty() && resourceTypes.isEmpty();
+    }
+
+    /**
+     * Install the rules on a freshly created session. A browser without CDP access keeps
+     * loading everything rather than failing the test.
+     */
+    void apply(WebDriver driver) {
+        if (isEmpty()) {
+            return;
+        }
+        try {
+            if (!urlPatterns.isEmpty()) {
+                blockUrls(driver);
+            }
+            if (!resourceTypes.isEmpty()) {
+                blockResourceTypes(driver);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Resource blocking profile '" + name + "' not applied: " + e.getMessage());
+        }
+    }
+
+    private void blockUrls(WebDriver driver) {
+        if (!(driver instanceof HasCdp)) {
+            throw new IllegalStateException(driver.getClass().getSimpleName() + " does not expose CDP");
+        }
+        HasCdp cdp = (HasCdp) driver;
+        cdp.executeCdpCommand("Network.enable", Map.of());
+        cdp.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", urlPatterns));
+    }
+
+    private void blockResourceTypes(WebDriver driver) {
+        if (!(driver instanceof HasDevTools)) {
+            throw new IllegalStateException(driver.getClass().getSimpleName() + " does not expose DevTools");
+        }
+        DevTools devTools = ((HasDevTools) driver).getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+        // Only requests of the blocked types are paused, so every paused request is failed
+        devTools.addListener(REQUEST_PAUSED, paused -> devTools.send(new Command<Void>("Fetch.failRequest",
+                Map.of("requestId", paused.get("requestId"), "errorReason", "BlockedByClient"))));
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        for (String type : resourceTypes) {
+            patterns.add(Map.of("urlPattern", "*", "resourceType", type, "requestStage", "Request"));
+        }
+        devTools.send(new Command<Void>("Fetch.enable", Map.of("patterns", patterns)));
+    }
+
+    private static List<String> split(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
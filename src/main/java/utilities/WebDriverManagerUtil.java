@@ -1,35 +1,91 @@
 package utilities;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 
 public class WebDriverManagerUtil {
 
     private static ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    private static ThreadLocal<DriverSessionPool.Session> pooledSession = new ThreadLocal<>();
 
     private static final int IMPLICIT_WAIT_TIMEOUT = 5;
     private static final int PAGE_LOAD_TIMEOUT = 15;
+    // Page objects wait explicitly; an implicit wait would stretch every negative lookup
+    private static final boolean EXPLICIT_WAITS_ONLY = ConfigReader.getBoolean("wait.explicitOnly", false);
+
+    private static final boolean POOL_ENABLED = ConfigReader.getBoolean("driver.pool.enabled", false);
+    // One warm browser per test thread unless sized explicitly
+    private static final int POOL_SIZE = ConfigReader.getInt("driver.pool.size",
+            Math.max(2, ConfigReader.getInt("parallel.threadCount", 2)));
+    private static final int POOL_MAX_USES = ConfigReader.getInt("driver.pool.maxUses", 10);
+    private static final int POOL_LEASE_TIMEOUT = ConfigReader.getInt("driver.pool.leaseTimeoutSeconds", 120);
+
+    // "new" is the full-browser headless mode; "old" is the legacy headless shell
+    private static final String HEADLESS_MODE = ConfigReader.get("driver.headless.mode", "new");
+    private static final int PREWARM_COUNT = ConfigReader.getInt("driver.pool.prewarm", 0);
+
+    private static final ResourceBlockingProfile BLOCKING_PROFILE = ResourceBlockingProfile.fromConfig();
 
+    private static DriverSessionPool sessionPool;
+    private static DriverBackend backend;
+
+    /**
+     * Attach a browser to the current thread: a warm pooled session when
+     * driver.pool.enabled is set, otherwise a freshly launched one
+     */
     public static void initializeDriver(boolean headless) {
+        if (POOL_ENABLED) {
+            long started = System.nanoTime();
+            DriverSessionPool.Session session = pool().lease(headless, Duration.ofSeconds(POOL_LEASE_TIMEOUT));
+            BrowserLaunchMetrics.record("leaseWait", System.nanoTime() - started);
+            pooledSession.set(session);
+            driver.set(session.driver);
+        } else {
+            driver.set(createDriver(headless));
+        }
+    }
+
+    /**
+     * Start driver.pool.prewarm pooled browsers in the background; returns immediately
+     */
+    public static void prewarmPool(boolean headless) {
+        if (POOL_ENABLED && PREWARM_COUNT > 0) {
+            pool().prewarm(headless, PREWARM_COUNT);
+        }
+    }
+
+    /**
+     * Attach a freshly launched browser outside the pool, for suite fixtures that
+     * must not compete with tests for pooled sessions
+     */
+    public static void initializeDedicatedDriver(boolean headless) {
+        driver.set(createDriver(headless));
+    }
+
+    private static WebDriver createDriver(boolean headless) {
         WebDriver webDriver = null;
+        BrowserLaunchMetrics.Timer timer = BrowserLaunchMetrics.start();
 
         try {
-            WebDriverManager.chromedriver().setup();
-            ChromeOptions chromeOptions = getChromeOptions(headless);
-            webDriver = new ChromeDriver(chromeOptions);
+            webDriver = backend().start(headless, timer);
 
-            webDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(IMPLICIT_WAIT_TIMEOUT));
+            webDriver.manage().timeouts().implicitlyWait(implicitWait());
             webDriver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(PAGE_LOAD_TIMEOUT));
+            BLOCKING_PROFILE.apply(webDriver);
 
             if (!headless) {
                 webDriver.manage().window().maximize();
             }
+            timer.phase("configureSession");
+            timer.finish();
 
-            driver.set(webDriver);
+            return CommandLatencyRecorder.ENABLED ? CommandLatencyRecorder.decorate(webDriver) : webDriver;
 
         } catch (Exception e) {
             if (webDriver != null) {
@@ -39,18 +95,25 @@ public class WebDriverManagerUtil {
         }
     }
 
-    private static ChromeOptions getChromeOptions(boolean headless) {
-        ChromeOptions chromeOptions = new ChromeOptions();
+    static ChromeOptions getChromeOptions(boolean headless, Path userDataDir) {
+        List<String> arguments = new ArrayList<>();
         if (headless) {
-            chromeOptions.addArguments("--headless");
+            arguments.add("--headless=" + HEADLESS_MODE);
+        }
+        arguments.add("--no-sandbox");
+        arguments.add("--disable-dev-shm-usage");
+        arguments.add("--disable-gpu");
+        arguments.add("--window-size=1920,1080");
+        arguments.add("--disable-extensions");
+        arguments.add("--disable-web-security");
+        arguments.add("--allow-running-insecure-content");
+        BrowserLaunchMetrics.recordArguments(arguments);
+
+        ChromeOptions chromeOptions = new ChromeOptions();
+        chromeOptions.addArguments(arguments);
+        if (userDataDir != null) {
+            chromeOptions.addArguments("--user-data-dir=" + userDataDir);
         }
-        chromeOptions.addArguments("--no-sandbox");
-        chromeOptions.addArguments("--disable-dev-shm-usage");
-        chromeOptions.addArguments("--disable-gpu");
-        chromeOptions.addArguments("--window-size=1920,1080");
-        chromeOptions.addArguments("--disable-extensions");
-        chromeOptions.addArguments("--disable-web-security");
-        chromeOptions.addArguments("--allow-running-insecure-content");
         return chromeOptions;
     }
 
@@ -62,14 +125,39 @@ public class WebDriverManagerUtil {
         return currentDriver;
     }
 
+    /**
+     * The implicit wait every session is created with (zero with wait.explicitOnly)
+     */
+    public static Duration implicitWait() {
+        return EXPLICIT_WAITS_ONLY ? Duration.ZERO : Duration.ofSeconds(IMPLICIT_WAIT_TIMEOUT);
+    }
+
     public static boolean isDriverInitialized() {
         return driver.get() != null;
     }
 
     /**
-     * Quit WebDriver and remove from ThreadLocal
+     * The blocking.profile new sessions get, or null when it blocks nothing
+     */
+    public static String activeBlockingProfile() {
+        return BLOCKING_PROFILE.isEmpty() ? null : BLOCKING_PROFILE.name();
+    }
+
+    /**
+     * Quit WebDriver (or hand a pooled session back) and remove from ThreadLocal
      */
     public static void quitDriver() {
+        DriverSessionPool.Session session = pooledSession.get();
+        if (session != null) {
+            try {
+                pool().release(session);
+            } finally {
+                pooledSession.remove();
+                driver.remove();
+            }
+            return;
+        }
+
         WebDriver currentDriver = driver.get();
         if (currentDriver != null) {
             try {
@@ -82,6 +170,44 @@ public class WebDriverManagerUtil {
         }
     }
 
+    /**
+     * Open baseUrl, skipping the navigation when a pooled session was just reset onto it
+     */
+    public static void openBaseUrl() {
+        DriverSessionPool.Session session = pooledSession.get();
+        if (session != null && session.consumeAtBaseUrl()) {
+            return;
+        }
+        getDriver().get(ConfigReader.get("baseUrl"));
+    }
+
+    /**
+     * Quit every idle pooled session; called once at the end of the suite
+     */
+    public static synchronized void shutdownPool() {
+        if (sessionPool != null) {
+            sessionPool.shutdown();
+            sessionPool = null;
+        }
+    }
+
+    private static synchronized DriverBackend backend() {
+        if (backend == null) {
+            backend = DriverBackend.fromConfig();
+        }
+        return backend;
+    }
+
+    private static synchronized DriverSessionPool pool() {
+        if (sessionPool == null) {
+            sessionPool = new DriverSessionPool(POOL_SIZE, POOL_MAX_USES, ConfigReader.get("baseUrl"),
+                    WebDriverManagerUtil::createDriver);
+            DriverSessionPool created = sessionPool;
+            Runtime.getRuntime().addShutdownHook(new Thread(created::shutdown, "driver-pool-shutdown"));
+        }
+        return sessionPool;
+    }
+
     /**
      * Refresh current page
      */
@@ -0,0 +1,210 @@
+package base;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import utilities.ConfigReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Protocol-level login and registration against the app's auth endpoints, for tests that only
+ * need "a logged-in user" or "a registered user" and not the form itself (that stays with
+ * AuthFormPage). One HttpClient is shared by every instance so connections are kept alive and
+ * reused; batches run asynchronously, at most api.maxConcurrency requests at a time.
+ */
+public final class AuthApiClient {
+
+    private static final Json JSON = new Json();
+    private static final Duration TIMEOUT = Duration.ofSeconds(ConfigReader.getInt("api.timeoutSeconds", 10));
+    private static final int MAX_CONCURRENCY = ConfigReader.getInt("api.maxConcurrency", 16);
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .connectTimeout(TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    public static final class Account {
+        private final String name;
+        private final String email;
+        private final String password;
+
+        public Account(String name, String email, String password) {
+            this.name = name;
+            this.email = email;
+            this.password = password;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+    }
+
+    public static final class AuthResult {
+        private final int status;
+        private final String email;
+        private final String token;
+        private final String error;
+        private final List<HttpCookie> cookies;
+
+        AuthResult(int status, String email, String token, String error, List<HttpCookie> cookies) {
+            this.status = status;
+            this.email = email;
+            this.token = token;
+            this.error = error;
+            this.cookies = Collections.unmodifiableList(new ArrayList<>(cookies));
+        }
+
+        public boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public List<HttpCookie> getCookies() {
+            return cookies;
+        }
+
+        @Override
+        public String toString() {
+            return "HTTP " + status + " for " + email + (error == null ? "" : ": " + error);
+        }
+    }
+
+    private final URI loginEndpoint;
+    private final URI registerEndpoint;
+
+    public AuthApiClient(String baseUrl) {
+        URI base = URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+        this.loginEndpoint = base.resolve(ConfigReader.get("api.loginPath", "api/auth/login"));
+        this.registerEndpoint = base.resolve(ConfigReader.get("api.registerPath", "api/auth/register"));
+    }
+
+    /**
+     * Client for api.baseUrl, or baseUrl when unset (which is the stub when stub.enabled is on)
+     */
+    public static AuthApiClient fromConfig() {
+        return new AuthApiClient(ConfigReader.get("api.baseUrl", ConfigReader.get("baseUrl")));
+    }
+
+    public AuthResult login(String email, String password) {
+        return join(loginAsync(email, password));
+    }
+
+    public AuthResult register(String name, String email, String password) {
+        return join(registerAsync(name, email, password));
+    }
+
+    public CompletableFuture<AuthResult> loginAsync(String email, String password) {
+        return post(loginEndpoint, email, password, null);
+    }
+
+    public CompletableFuture<AuthResult> registerAsync(String name, String email, String password) {
+        return post(registerEndpoint, email, password, name);
+    }
+
+    /**
+     * Register every account concurrently; results are in the same order as the accounts
+     */
+    public List<AuthResult> registerAll(List<Account> accounts) {
+        Semaphore permits = new Semaphore(MAX_CONCURRENCY);
+        List<CompletableFuture<AuthResult>> pending = new ArrayList<>();
+        for (Account account : accounts) {
+            permits.acquireUninterruptibly();
+            pending.add(registerAsync(account.getName(), account.getEmail(), account.getPassword())
+                    .whenComplete((result, error) -> permits.release()));
+        }
+        List<AuthResult> results = new ArrayList<>();
+        for (CompletableFuture<AuthResult> result : pending) {
+            results.add(join(result));
+        }
+        return results;
+    }
+
+    private CompletableFuture<AuthResult> post(URI endpoint, String email, String password, String name) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("email", email);
+        body.put("password", password);
+        if (name != null) {
+            body.put("name", name);
+        }
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(JSON.toJson(body)))
+                .build();
+        return CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> toResult(email, response));
+    }
+
+    private static AuthResult toResult(String email, HttpResponse<String> response) {
+        String token = null;
+        String error = null;
+        try {
+            Map<String, Object> json = JSON.toType(response.body(), Json.MAP_TYPE);
+            if (json != null) {
+                token = json.get("token") == null ? null : String.valueOf(json.get("token"));
+                error = json.get("error") == null ? null : String.valueOf(json.get("error"));
+            }
+        } catch (JsonException e) {
+            // Not a JSON endpoint (an HTML error page, a misconfigured api.loginPath)
+            error = "Unexpected response from " + response.uri();
+        }
+        if (error == null && (response.statusCode() < 200 || response.statusCode() >= 300)) {
+            error = "HTTP " + response.statusCode();
+        }
+        List<HttpCookie> cookies = new ArrayList<>();
+        for (String header : response.headers().allValues("Set-Cookie")) {
+            cookies.addAll(HttpCookie.parse(header));
+        }
+        return new AuthResult(response.statusCode(), email, token, error, cookies);
+    }
+
+    private static AuthResult join(CompletableFuture<AuthResult> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw new UncheckedIOException("Auth request failed: " + cause.getMessage(), (IOException) cause);
+            }
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package base;
+
+import data.LoginData;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import pages.AuthFormPage;
+import pages.DropDownPage;
+import pages.HomePage;
+import utilities.ConfigReader;
+import utilities.WebDriverManagerUtil;
+import utils.TestLog;
+
+import java.net.HttpCookie;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Suite-scoped authenticated session: logs in through the UI once, captures cookies,
+ * localStorage and sessionStorage, and replays them into any session that needs a
+ * logged-in user. With auth.fixture.mode=api the login is a single {@link AuthApiClient}
+ * request instead, and the token is seeded under api.session.storageKey (the fixture's key by default).
+ */
+public final class AuthSessionFixture {
+
+    private static final String READ_STORAGE_SCRIPT =
+            "var store = window[arguments[0]], out = {};" +
+            "for (var i = 0; i < store.length; i++) { var k = store.key(i); out[k] = store.getItem(k); }" +
+            "return out;";
+
+    private static final String WRITE_STORAGE_SCRIPT =
+            "var store = window[arguments[0]], entries = arguments[1];" +
+            "Object.keys(entries).forEach(function (k) { store.setItem(k, entries[k]); });";
+
+    private static final String CLEAR_STORAGE_SCRIPT =
+            "try { window.localStorage.clear(); } catch (e) {}" +
+            "try { window.sessionStorage.clear(); } catch (e) {}";
+
+    public static final class AuthState {
+        private final Set<Cookie> cookies;
+        private final Map<String, String> localStorage;
+        private final Map<String, String> sessionStorage;
+
+        AuthState(Set<Cookie> cookies, Map<String, String> localStorage, Map<String, String> sessionStorage) {
+            this.cookies = Collections.unmodifiableSet(new HashSet<>(cookies));
+            this.localStorage = Collections.unmodifiableMap(new HashMap<>(localStorage));
+            this.sessionStorage = Collections.unmodifiableMap(new HashMap<>(sessionStorage));
+        }
+
+        public Set<Cookie> getCookies() {
+            return cookies;
+        }
+
+        public Map<String, String> getLocalStorage() {
+            return localStorage;
+        }
+
+        public Map<String, String> getSessionStorage() {
+            return sessionStorage;
+        }
+    }
+
+    private static AuthState state;
+    private static RuntimeException failure;
+    private static volatile boolean apiSessionVerified;
+
+    private AuthSessionFixture() {
+    }
+
+    /**
+     * The captured login state, performing the real UI login on first use.
+     * A failed login is remembered so every dependent test reports the same cause.
+     */
+    public static synchronized AuthState authenticatedState() {
+        if (state == null && failure == null) {
+            try {
+                state = "api".equalsIgnoreCase(ConfigReader.get("auth.fixture.mode", "ui")) ? loginThroughApi() : loginOnce();
+            } catch (RuntimeException e) {
+                failure = new IllegalStateException("Suite login for " + LoginData.VALID_EMAIL + " failed", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return state;
+    }
+
+    /**
+     * Put the driver on baseUrl as the logged-in test user without going through the form
+     */
+    public static void startAuthenticated(WebDriver driver) {
+        AuthState auth = authenticatedState();
+        String baseUrl = ConfigReader.get("baseUrl");
+        openOrigin(driver, baseUrl);
+
+        driver.manage().deleteAllCookies();
+        for (Cookie cookie : auth.getCookies()) {
+            driver.manage().addCookie(cookie);
+        }
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        js.executeScript(CLEAR_STORAGE_SCRIPT);
+        js.executeScript(WRITE_STORAGE_SCRIPT, "localStorage", auth.getLocalStorage());
+        js.executeScript(WRITE_STORAGE_SCRIPT, "sessionStorage", auth.getSessionStorage());
+
+        // Reload so the app boots with the injected state
+        driver.get(baseUrl);
+        verifyApiSession(driver);
+    }
+
+    /**
+     * A session seeded from the auth API only works if the app reads api.session.storageKey, which
+     * is the fixture's key by default. Check once that it was picked up, rather than letting every
+     * test silently run logged out.
+     */
+    private static void verifyApiSession(WebDriver driver) {
+        if (apiSessionVerified || !"api".equalsIgnoreCase(ConfigReader.get("auth.fixture.mode", "ui"))
+                || !WebDriverManagerUtil.isDriverInitialized() || WebDriverManagerUtil.getDriver() != driver) {
+            return;
+        }
+        if (!new DropDownPage().isAvatarVisible()) {
+            throw new IllegalStateException("The app did not pick up the session seeded from the auth API under"
+                    + " localStorage key '" + ConfigReader.get("api.session.storageKey", "galleryUser")
+                    + "'; set api.loginPath and api.session.storageKey for this deployment, or use auth.fixture.mode=ui");
+        }
+        apiSessionVerified = true;
+    }
+
+    /**
+     * Put the driver on baseUrl with no session at all
+     */
+    public static void startLoggedOut(WebDriver driver) {
+        String baseUrl = ConfigReader.get("baseUrl");
+        openOrigin(driver, baseUrl);
+        driver.manage().deleteAllCookies();
+        ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+        driver.get(baseUrl);
+    }
+
+    private static void openOrigin(WebDriver driver, String baseUrl) {
+        // Cookies and storage can only be written from a document on the app's origin
+        URI target = URI.create(baseUrl);
+        URI current = URI.create(driver.getCurrentUrl());
+        boolean sameOrigin = target.getScheme().equals(current.getScheme())
+                && target.getAuthority() != null && target.getAuthority().equals(current.getAuthority());
+        if (!sameOrigin) {
+            driver.get(baseUrl);
+        }
+    }
+
+    /**
+     * Logs in on a helper thread with its own browser, so it never waits on the caller's pool slots
+     */
+    private static AuthState loginOnce() {
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "auth-fixture"));
+        try {
+            Future<AuthState> login = executor.submit(() -> {
+                WebDriverManagerUtil.initializeDedicatedDriver(ConfigReader.getBoolean("auth.fixture.headless", true));
+                try {
+                    WebDriverManagerUtil.openBaseUrl();
+                    AuthFormPage authFormPage = new HomePage().clickProfileButton()
+                            .performLogin(LoginData.VALID_EMAIL, LoginData.VALID_PASSWORD);
+                    if (!authFormPage.isLoginSuccessful()) {
+                        throw new IllegalStateException("Login success message did not appear");
+                    }
+                    return capture(WebDriverManagerUtil.getDriver());
+                } finally {
+                    WebDriverManagerUtil.quitDriver();
+                }
+            });
+            AuthState captured = login.get();
+            TestLog.log("Captured authenticated session: " + captured.getCookies().size() + " cookies, "
+                    + captured.getLocalStorage().size() + " localStorage and "
+                    + captured.getSessionStorage().size() + " sessionStorage entries");
+            return captured;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException
+                    ? (RuntimeException) e.getCause()
+                    : new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during suite login", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Same end state as the UI login without a browser: the response's cookies plus the
+     * {email, token} entry the app keeps in localStorage
+     */
+    private static AuthState loginThroughApi() {
+        AuthApiClient.AuthResult result = AuthApiClient.fromConfig().login(LoginData.VALID_EMAIL, LoginData.VALID_PASSWORD);
+        if (!result.isSuccess()) {
+            throw new IllegalStateException("API login failed: " + result);
+        }
+        Set<Cookie> cookies = new HashSet<>();
+        for (HttpCookie cookie : result.getCookies()) {
+            cookies.add(new Cookie.Builder(cookie.getName(), cookie.getValue())
+                    .path(cookie.getPath() == null ? "/" : cookie.getPath())
+                    .isSecure(cookie.getSecure())
+                    .isHttpOnly(cookie.isHttpOnly())
+                    .build());
+        }
+        Map<String, String> user = new HashMap<>();
+        user.put("email", result.getEmail());
+        user.put("token", result.getToken());
+        Map<String, String> local = Map.of(ConfigReader.get("api.session.storageKey", "galleryUser"), new Json().toJson(user));
+        TestLog.log("Captured authenticated session through the auth API: " + cookies.size() + " cookies");
+        return new AuthState(cookies, local, Map.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static AuthState capture(WebDriver driver) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        Map<String, String> local = (Map<String, String>) js.executeScript(READ_STORAGE_SCRIPT, "localStorage");
+        Map<String, String> session = (Map<String, String>) js.executeScript(READ_STORAGE_SCRIPT, "sessionStorage");
+        return new AuthState(driver.manage().getCookies(), local, session);
+    }
+}
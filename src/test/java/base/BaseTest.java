@@ -1,9 +1,14 @@
 package base;
 
-import org.testng.Reporter;
 import org.testng.annotations.*;
+import utilities.BrowserLaunchMetrics;
 import utilities.ConfigReader;
 import utilities.WebDriverManagerUtil;
+import utils.PagePerformance;
+import utils.TestLog;
+
+import java.io.IOException;
+import java.nio.file.Paths;
 
 public class BaseTest {
 
@@ -12,26 +17,28 @@ public class BaseTest {
     @BeforeClass(groups = {"dropdown", "dependent"})
     @Parameters({"headless"})
     public void setUpClass(@Optional("false") String headless) {
-        Reporter.log("Setting up driver (headless: " + headless + ") - Class Level", true);
+        TestLog.log("Setting up driver (headless: " + headless + ") - Class Level");
 
         WebDriverManagerUtil.initializeDriver(Boolean.parseBoolean(headless));
-        WebDriverManagerUtil.getDriver().get(ConfigReader.get("baseUrl"));
+        PagePerformance.prepare(WebDriverManagerUtil.getDriver());
+        WebDriverManagerUtil.openBaseUrl();
+        PagePerformance.captureNavigation(WebDriverManagerUtil.getDriver(), "home");
     }
 
     @BeforeClass(groups = {"dropdown", "dependent"}, dependsOnMethods = {"setUpClass"})
     public void initializePageObjects() {
-        Reporter.log("Initializing page objects - Class Level", true);
+        TestLog.log("Initializing page objects - Class Level");
         // Override this in child classes if needed
     }
 
     @AfterClass(groups = {"dropdown", "dependent"})
     public void tearDownClass() {
         if (WebDriverManagerUtil.isDriverInitialized()) {
-            Reporter.log("Tearing down driver: " +
-                    WebDriverManagerUtil.getDriver().getClass().getSimpleName() + " - Class Level", true);
+            TestLog.log("Tearing down driver: " +
+                    WebDriverManagerUtil.getDriver().getClass().getSimpleName() + " - Class Level");
 
             WebDriverManagerUtil.quitDriver();
-            Reporter.log("Driver cleanup completed - Class Level", true);
+            TestLog.log("Driver cleanup completed - Class Level");
         }
     }
 
@@ -40,50 +47,87 @@ public class BaseTest {
     @BeforeMethod(groups = {"login", "independent"})
     @Parameters({"headless"})
     public void setUpMethod(@Optional("false") String headless) {
-        Reporter.log("Setting up driver (headless: " + headless + ") - Method Level", true);
+        TestLog.log("Setting up driver (headless: " + headless + ") - Method Level");
 
         WebDriverManagerUtil.initializeDriver(Boolean.parseBoolean(headless));
-        WebDriverManagerUtil.getDriver().get(ConfigReader.get("baseUrl"));
+        PagePerformance.prepare(WebDriverManagerUtil.getDriver());
+        WebDriverManagerUtil.openBaseUrl();
+        PagePerformance.captureNavigation(WebDriverManagerUtil.getDriver(), "home");
     }
 
     @BeforeMethod(groups = {"login", "independent"}, dependsOnMethods = {"setUpMethod"})
     public void initializePageObjectsForMethod() {
-        Reporter.log("Initializing page objects - Method Level", true);
+        TestLog.log("Initializing page objects - Method Level");
         // Override this in child classes if needed
     }
 
     @AfterMethod(groups = {"login", "independent"})
     public void tearDownMethod() {
         if (WebDriverManagerUtil.isDriverInitialized()) {
-            Reporter.log("Tearing down driver: " +
-                    WebDriverManagerUtil.getDriver().getClass().getSimpleName() + " - Method Level", true);
+            TestLog.log("Tearing down driver: " +
+                    WebDriverManagerUtil.getDriver().getClass().getSimpleName() + " - Method Level");
 
             WebDriverManagerUtil.quitDriver();
-            Reporter.log("Driver cleanup completed - Method Level", true);
+            TestLog.log("Driver cleanup completed - Method Level");
         }
     }
 
     // ==================== SUITE-LEVEL SETUP ====================
 
-    @BeforeSuite
-    public void beforeSuite() {
-        Reporter.log("Starting Test Suite execution", true);
+    private static StubGalleryServer stubServer;
+
+    @BeforeSuite(alwaysRun = true)
+    @Parameters({"headless"})
+    public void beforeSuite(@Optional("false") String headless) throws IOException {
+        TestLog.log("Starting Test Suite execution");
+        startStubServerIfEnabled();
+        // Browsers start in the background while TestNG moves on to the first tests
+        WebDriverManagerUtil.prewarmPool(Boolean.parseBoolean(headless));
     }
 
-    @AfterSuite
+    @AfterSuite(alwaysRun = true)
     public void afterSuite() {
-        Reporter.log("Test Suite execution completed", true);
+        WebDriverManagerUtil.shutdownPool();
+        stopStubServer();
+        TestLog.log(BrowserLaunchMetrics.summary());
+        BrowserLaunchMetrics.writeReport(Paths.get(
+                ConfigReader.get("metrics.launch.report", "test-output/browser-launch.json")));
+        PagePerformance.writeReport(Paths.get(ConfigReader.get("perf.report", "test-output/page-performance.json")));
+        PagePerformance.appendTrend(Paths.get(ConfigReader.get("perf.trend", "test-history/page-performance-trend.jsonl")));
+        TestLog.log("Test Suite execution completed");
+    }
+
+    /**
+     * With stub.enabled=true, serve the local gallery stand-in and point baseUrl at it
+     */
+    private static synchronized void startStubServerIfEnabled() throws IOException {
+        if (stubServer != null || !ConfigReader.getBoolean("stub.enabled", false)) {
+            return;
+        }
+        stubServer = new StubGalleryServer(ConfigReader.getInt("stub.latencyMillis", 0));
+        String stubUrl = stubServer.start(ConfigReader.getInt("stub.port", 0));
+        // System properties win over config.properties for every ConfigReader.get("baseUrl")
+        System.setProperty("baseUrl", stubUrl);
+        TestLog.log("Serving local gallery stub at " + stubUrl);
+    }
+
+    private static synchronized void stopStubServer() {
+        if (stubServer != null) {
+            stubServer.stop();
+            stubServer = null;
+        }
     }
 
     // ==================== UTILITY METHODS ====================
 
     protected void navigateToHomePage() {
-        Reporter.log("Navigating back to home page", true);
+        TestLog.log("Navigating back to home page");
         WebDriverManagerUtil.getDriver().get(ConfigReader.get("baseUrl"));
+        PagePerformance.captureNavigation(WebDriverManagerUtil.getDriver(), "home");
     }
 
     protected void refreshPage() {
-        Reporter.log("Refreshing current page", true);
+        TestLog.log("Refreshing current page");
         WebDriverManagerUtil.refreshPage();
     }
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+package base;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import data.LoginData;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded stand-in for the gallery client: serves the fixture SPA (profile button, AuthForm,
+ * avatar menu, /contact and /changepassword routes) on every page route, plus a small JSON
+ * auth API under /api/auth. Every response can be delayed to simulate a slower backend.
+ */
+public final class StubGalleryServer {
+
+    private static final String FIXTURE = "/fixtures/gallery-fixture.html";
+    private static final String API_PREFIX = "/api";
+    private static final Json JSON = new Json();
+
+    private final int latencyMillis;
+    private final Map<String, String> users = new ConcurrentHashMap<>();
+    private final String page;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public StubGalleryServer(int latencyMillis) {
+        this.latencyMillis = latencyMillis;
+        this.page = loadPage();
+        users.put(LoginData.VALID_EMAIL, LoginData.VALID_PASSWORD);
+    }
+
+    /**
+     * Start listening on the loopback interface; port 0 picks a free port
+     */
+    public String start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "stub-gallery-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        return getBaseUrl();
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            simulateLatency();
+            String path = exchange.getRequestURI().getPath();
+            if (path.startsWith(API_PREFIX + "/auth/")) {
+                handleAuth(exchange, path.substring((API_PREFIX + "/auth/").length()));
+            } else if ("GET".equals(exchange.getRequestMethod()) && !path.contains(".")) {
+                send(exchange, 200, "text/html; charset=utf-8", page);
+            } else {
+                send(exchange, 404, "text/plain; charset=utf-8", "Not found");
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleAuth(HttpExchange exchange, String action) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            sendJson(exchange, 405, Map.of("error", "Method not allowed"));
+            return;
+        }
+        Map<String, Object> body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = JSON.toType(new String(in.readAllBytes(), StandardCharsets.UTF_8), Json.MAP_TYPE);
+        } catch (RuntimeException e) {
+            sendJson(exchange, 400, Map.of("error", "Malformed JSON"));
+            return;
+        }
+        if (body == null) {
+            body = Map.of();
+        }
+        String email = String.valueOf(body.getOrDefault("email", "")).trim();
+        String password = String.valueOf(body.getOrDefault("password", ""));
+        if (email.isEmpty() || password.isEmpty()) {
+            sendJson(exchange, 400, Map.of("error", "Please fill in all fields"));
+            return;
+        }
+
+        switch (action) {
+            case "login":
+                if (password.equals(users.get(email))) {
+                    sendJson(exchange, 200, session(email));
+                } else {
+                    sendJson(exchange, 401, Map.of("error", "Invalid credentials"));
+                }
+                break;
+            case "register":
+                if (users.putIfAbsent(email, password) == null) {
+                    sendJson(exchange, 201, session(email));
+                } else {
+                    sendJson(exchange, 409, Map.of("error", "User already exists"));
+                }
+                break;
+            default:
+                sendJson(exchange, 404, Map.of("error", "Unknown auth action " + action));
+        }
+    }
+
+    private static Map<String, Object> session(String email) {
+        Map<String, Object> session = new HashMap<>();
+        session.put("email", email);
+        session.put("token", UUID.randomUUID().toString());
+        return session;
+    }
+
+    private void simulateLatency() {
+        if (latencyMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, Map<String, Object> body) throws IOException {
+        send(exchange, status, "application/json", JSON.toJson(body));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String loadPage() {
+        try (InputStream in = StubGalleryServer.class.getResourceAsStream(FIXTURE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing test resource " + FIXTURE);
+            }
+            String html = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            // Point the fixture's login/register at this server's API
+            return html.replace("<script>", "<script>window.GALLERY_API = '" + API_PREFIX + "';</script>\n<script>");
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read " + FIXTURE, e);
+        }
+    }
+}
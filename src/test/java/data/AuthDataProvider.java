@@ -0,0 +1,69 @@
+package data;
+
+import org.testng.annotations.DataProvider;
+import utilities.ConfigReader;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Login and registration scenarios from the data.auth.file workbook (one sheet each), served
+ * lazily and in parallel (parallel.dataProviderThreadCount invocations at a time).
+ * data.maxRows caps the rows per sheet for quick local runs; 0 runs them all.
+ */
+public final class AuthDataProvider {
+
+    public static final String LOGIN = "loginScenarios";
+    public static final String REGISTRATION = "registrationScenarios";
+
+    private static final String FILE = ConfigReader.get("data.auth.file", "auth-scenarios.xlsx");
+    private static final int MAX_ROWS = ConfigReader.getInt("data.maxRows", 0);
+
+    private AuthDataProvider() {
+    }
+
+    /**
+     * scenario, email, password, expectSuccess
+     */
+    @DataProvider(name = LOGIN, parallel = true)
+    public static Iterator<Object[]> loginScenarios() {
+        return rows("login", row -> new Object[]{
+                row.get("scenario"),
+                row.get("email"),
+                row.get("password"),
+                Boolean.parseBoolean(row.get("expectSuccess"))
+        });
+    }
+
+    /**
+     * scenario, fullName, email, password, confirmPassword, expectSuccess
+     */
+    @DataProvider(name = REGISTRATION, parallel = true)
+    public static Iterator<Object[]> registrationScenarios() {
+        return rows("registration", row -> new Object[]{
+                row.get("scenario"),
+                row.get("fullName"),
+                row.get("email"),
+                row.get("password"),
+                row.get("confirmPassword"),
+                Boolean.parseBoolean(row.get("expectSuccess"))
+        });
+    }
+
+    private static Iterator<Object[]> rows(String sheet, Function<Map<String, String>, Object[]> mapper) {
+        // The cap is applied by TestDataTable so the cache file is closed as soon as it is reached
+        Iterator<Map<String, String>> rows = TestDataTable.rows(FILE, sheet, MAX_ROWS);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                return mapper.apply(rows.next());
+            }
+        };
+    }
+}
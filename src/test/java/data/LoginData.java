@@ -1,5 +1,9 @@
 package data;
 
+/**
+ * Fixed accounts used by single-case tests and fixtures; scenario tables live in
+ * data/auth-scenarios.xlsx (see {@link AuthDataProvider}).
+ */
 public class LoginData {
 
     // Valid credentials
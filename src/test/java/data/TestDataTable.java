@@ -0,0 +1,329 @@
+package data;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import utilities.ConfigReader;
+import utils.TestLog;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Rows of a test data sheet (.xlsx) or .csv file, keyed by the header row. Workbooks are read
+ * with POI's streaming SAX API, never as a whole DOM, and the parsed rows are written to a
+ * tab-separated cache named after the file's SHA-256; later runs stream that cache and skip the
+ * workbook until its content changes. Memory use stays flat whatever the number of rows.
+ */
+public final class TestDataTable {
+
+    private static final Path CACHE_DIR = Paths.get(ConfigReader.get("data.cache.dir", "test-history/data-cache"));
+
+    private TestDataTable() {
+    }
+
+    /**
+     * Lazily read rows; the underlying file is closed once the iterator is exhausted
+     */
+    public static Iterator<Map<String, String>> rows(String file, String sheet) {
+        return rows(file, sheet, 0);
+    }
+
+    /**
+     * Lazily read at most maxRows rows (0 for all); the underlying file is closed as soon as the
+     * last of them has been read
+     */
+    public static Iterator<Map<String, String>> rows(String file, String sheet, int maxRows) {
+        Path source = resource(file);
+        try {
+            return new CachedRows(cached(source, sheet), maxRows);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read test data " + file + (sheet == null ? "" : "#" + sheet), e);
+        }
+    }
+
+    /**
+     * A path on disk (large sheets kept outside the repository) or a name under data/ on the classpath
+     */
+    private static Path resource(String file) {
+        Path direct = Paths.get(file);
+        if (direct.isAbsolute() && Files.isRegularFile(direct)) {
+            return direct;
+        }
+        URL url = TestDataTable.class.getResource("/data/" + file);
+        if (url == null) {
+            throw new IllegalArgumentException("No test data file data/" + file + " on the classpath");
+        }
+        try {
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Unreadable test data location " + url, e);
+        }
+    }
+
+    /**
+     * The cache file for this content and sheet, parsing the source first when it is missing
+     */
+    private static synchronized Path cached(Path source, String sheet) throws IOException {
+        String name = sha256(source) + (sheet == null ? "" : "-" + sheet.replaceAll("\\W", "_")) + ".tsv";
+        Path cache = CACHE_DIR.resolve(name);
+        if (Files.isRegularFile(cache)) {
+            return cache;
+        }
+        Files.createDirectories(CACHE_DIR);
+        Path temp = Files.createTempFile(CACHE_DIR, name, ".tmp");
+        try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            if (source.getFileName().toString().toLowerCase().endsWith(".xlsx")) {
+                parseWorkbook(source, sheet, out);
+            } else {
+                parseCsv(source, out);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        // Parallel forks may parse the same file; whichever finishes last wins with identical content
+        Files.move(temp, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        TestLog.log("Cached test data " + source.getFileName() + (sheet == null ? "" : "#" + sheet) + " as " + cache);
+        return cache;
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            byte[] buffer = new byte[8192];
+            while (in.read(buffer) >= 0) {
+                // Digest as we go
+            }
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static void parseWorkbook(Path source, String sheet, Writer out) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(source.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream in = sheets.next()) {
+                    if (sheet != null && !sheet.equals(sheets.getSheetName())) {
+                        continue;
+                    }
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), strings,
+                            new RowWriter(out), new DataFormatter(), false));
+                    parser.parse(new InputSource(in));
+                    return;
+                }
+            }
+            throw new IllegalArgumentException("No sheet " + sheet + " in " + source.getFileName());
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Invalid workbook " + source.getFileName(), e);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * RFC 4180 CSV: quoted fields may hold commas, doubled quotes and line breaks
+     */
+    private static void parseCsv(Path source, Writer out) throws IOException {
+        try (Reader in = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            List<String> row = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean pending = false;
+            int c;
+            while ((c = in.read()) >= 0) {
+                pending = true;
+                if (quoted) {
+                    if (c != '"') {
+                        field.append((char) c);
+                    } else {
+                        in.mark(1);
+                        if (in.read() == '"') {
+                            field.append('"');
+                        } else {
+                            in.reset();
+                            quoted = false;
+                        }
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    row.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    row.add(field.toString());
+                    field.setLength(0);
+                    writeRow(out, row);
+                    row.clear();
+                    pending = false;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            if (pending) {
+                row.add(field.toString());
+                writeRow(out, row);
+            }
+        }
+    }
+
+    private static void writeRow(Writer out, List<String> cells) throws IOException {
+        if (cells.stream().allMatch(String::isEmpty)) {
+            return;
+        }
+        for (int i = 0; i < cells.size(); i++) {
+            if (i > 0) {
+                out.write('\t');
+            }
+            out.write(cells.get(i).replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r"));
+        }
+        out.write('\n');
+    }
+
+    private static List<String> readRow(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\t') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char escaped = line.charAt(++i);
+                cell.append(escaped == 't' ? '\t' : escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    /**
+     * Receives one sheet's cells from the SAX handler; blank cells are skipped by POI, so
+     * columns are placed by their cell reference
+     */
+    private static final class RowWriter implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Writer out;
+        private final List<String> cells = new ArrayList<>();
+
+        RowWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            try {
+                writeRow(out, cells);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = new CellReference(cellReference).getCol();
+            while (cells.size() < column) {
+                cells.add("");
+            }
+            cells.add(formattedValue == null ? "" : formattedValue);
+        }
+    }
+
+    private static final class CachedRows implements Iterator<Map<String, String>> {
+
+        private final BufferedReader in;
+        private final List<String> header;
+        private final int maxRows;
+        private int read;
+        private String next;
+
+        CachedRows(Path cache, int maxRows) throws IOException {
+            this.maxRows = maxRows;
+            in = Files.newBufferedReader(cache, StandardCharsets.UTF_8);
+            String first = in.readLine();
+            header = first == null ? Collections.emptyList() : readRow(first);
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map<String, String> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            List<String> cells = readRow(next);
+            advance();
+            Map<String, String> row = new LinkedHashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                row.put(header.get(i), i < cells.size() ? cells.get(i) : "");
+            }
+            return row;
+        }
+
+        private void advance() {
+            try {
+                next = maxRows > 0 && read++ >= maxRows ? null : in.readLine();
+                if (next == null) {
+                    in.close();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -3,9 +3,19 @@ package pages;
 
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 
 public class AuthFormPage extends BasePage {
 
+    // Element names for reading a snapshot()
+    public static final String SWITCH_MODE_BUTTON = "switchModeButton";
+    public static final String FORM_CARD = "formCard";
+    public static final String FORM_HEADING = "formHeading";
+    public static final String EMAIL_FIELD = "emailField";
+    public static final String PASSWORD_FIELD = "passwordField";
+    public static final String LOGIN_SUBMIT_BUTTON = "loginSubmitButton";
+    public static final String REGISTER_SUBMIT_BUTTON = "registerSubmitButton";
+
     // Toggle/Switch Button - This is the key element from your React component
     @FindBy(xpath = "//button[contains(text(), 'Switch to Register') or contains(text(), 'Switch to Login')]")
     private WebElement switchModeButton;
@@ -82,6 +92,22 @@ public class AuthFormPage extends BasePage {
         return this;
     }
 
+    /**
+     * Switch to the other mode, timed in the browser from the click until the card has settled
+     */
+    public TransitionTiming measureModeSwitch() {
+        boolean toRegister = isInLoginMode();
+        return measureTransition("authForm." + (toRegister ? "toRegister" : "toLogin"), formCard,
+                toRegister ? this::switchToRegisterMode : this::switchToLoginMode);
+    }
+
+    /**
+     * Wait until the form accepts input
+     */
+    void waitUntilInteractive() {
+        wait.until(ExpectedConditions.elementToBeClickable(emailField));
+    }
+
     private void waitForLoginMode() {
         wait.until(driver -> isLoginHeadingDisplayed());
     }
@@ -104,7 +130,7 @@ public class AuthFormPage extends BasePage {
 
     public AuthFormPage enterConfirmPassword(String confirmPassword) {
         // Only enter if we're in register mode and field is visible
-        if (isInRegisterMode() && isElementDisplayed(confirmPasswordField)) {
+        if (isInRegisterMode() && isElementDisplayed(confirmPasswordField, QUICK_TIMEOUT)) {
             enterText(confirmPasswordField, confirmPassword);
         }
         return this;
@@ -112,7 +138,7 @@ public class AuthFormPage extends BasePage {
 
     public AuthFormPage enterFullName(String fullName) {
         // Only enter if we're in register mode and field is visible
-        if (isInRegisterMode() && isElementDisplayed(fullNameField)) {
+        if (isInRegisterMode() && isElementDisplayed(fullNameField, QUICK_TIMEOUT)) {
             enterText(fullNameField, fullName);
         }
         return this;
@@ -144,13 +170,14 @@ public class AuthFormPage extends BasePage {
     public AuthFormPage performRegistration(String fullName, String email, String password, String confirmPassword) {
         switchToRegisterMode();
 
-        if (isElementDisplayed(fullNameField)) {
+        // Optional fields: the form has already switched, so don't wait for them to appear
+        if (isElementDisplayed(fullNameField, QUICK_TIMEOUT)) {
             enterFullName(fullName);
         }
         enterEmail(email);
         enterPassword(password);
 
-        if (isElementDisplayed(confirmPasswordField)) {
+        if (isElementDisplayed(confirmPasswordField, QUICK_TIMEOUT)) {
             enterConfirmPassword(confirmPassword);
         }
 
@@ -207,6 +234,14 @@ public class AuthFormPage extends BasePage {
         return isElementDisplayed(fullNameField);
     }
 
+    public boolean isConfirmPasswordFieldHidden() {
+        return isElementAbsent(confirmPasswordField, QUICK_TIMEOUT);
+    }
+
+    public boolean isFullNameFieldHidden() {
+        return isElementAbsent(fullNameField, QUICK_TIMEOUT);
+    }
+
     public boolean isLoginSubmitButtonVisible() {
         return isElementDisplayed(loginSubmitButton);
     }
@@ -216,11 +251,8 @@ public class AuthFormPage extends BasePage {
     }
 
     public AuthFormPage waitForModeTransition() {
-        try {
-            Thread.sleep(500); // 0.5 seconds
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        // Returns as soon as the framer-motion transition on the card has finished
+        waitForAnimationsToFinish(formCard, ANIMATION_TIMEOUT);
         return this;
     }
 }
\ No newline at end of file
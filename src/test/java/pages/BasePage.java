@@ -2,26 +2,213 @@
 
 package pages;
 
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocator;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.support.ui.ExpectedConditions;
+import utilities.ConfigReader;
 import utilities.WebDriverManagerUtil;
+import utils.FlightRecorder;
+import java.lang.reflect.Field;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 public class BasePage {
+    // Explicit wait engine settings; implicit waits are off when wait.explicitOnly=true
+    protected static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(ConfigReader.getInt("wait.timeoutSeconds", 10));
+    protected static final Duration QUICK_TIMEOUT = Duration.ofMillis(ConfigReader.getInt("wait.quickCheckMillis", 500));
+    protected static final Duration POLLING_INTERVAL = Duration.ofMillis(ConfigReader.getInt("wait.pollingMillis", 100));
+    private static final boolean ELEMENT_CACHE_ENABLED = ConfigReader.getBoolean("elements.cache.enabled", false);
+    protected static final Duration ANIMATION_TIMEOUT = Duration.ofMillis(ConfigReader.getInt("wait.animationTimeoutMillis", 2000));
+
+    // Resolves once running (finite) animations/transitions under the root have finished and the
+    // root's geometry, opacity, transform and inline styles stay unchanged for two frames.
+    // With requireHover it also waits for the root to match :hover.
+    private static final String UI_SETTLED_SCRIPT =
+            "var root = arguments[0], timeout = arguments[1], requireHover = arguments[2];" +
+            "var done = arguments[arguments.length - 1];" +
+            "var start = performance.now();" +
+            "var nextFrame = document.hidden ? function (f) { setTimeout(f, 16); } : requestAnimationFrame.bind(window);" +
+            "function running() {" +
+            "  var list = root ? (root.getAnimations ? root.getAnimations({subtree: true}) : [])" +
+            "                  : (document.getAnimations ? document.getAnimations() : []);" +
+            "  return list.filter(function (a) {" +
+            "    var timing = a.effect && a.effect.getTiming ? a.effect.getTiming() : {};" +
+            "    return (a.playState === 'running' || a.pending) && timing.iterations !== Infinity;" +
+            "  });" +
+            "}" +
+            "function signature() {" +
+            "  var el = root || document.body;" +
+            "  if (!el || !el.isConnected) { return 'detached'; }" +
+            "  var r = el.getBoundingClientRect(), cs = getComputedStyle(el);" +
+            "  var parts = [r.x, r.y, r.width, r.height, cs.opacity, cs.transform, cs.color, cs.backgroundColor];" +
+            "  var styled = el.querySelectorAll('[style]');" +
+            "  for (var i = 0; i < styled.length && i < 50; i++) { parts.push(styled[i].getAttribute('style')); }" +
+            "  return parts.join('|');" +
+            "}" +
+            "var last = null, stableFrames = 0;" +
+            "function tick() {" +
+            "  var remaining = timeout - (performance.now() - start);" +
+            "  if (remaining <= 0) { done(false); return; }" +
+            "  if (requireHover && !(root && root.matches(':hover'))) { stableFrames = 0; nextFrame(tick); return; }" +
+            "  var active = running();" +
+            "  if (active.length) {" +
+            "    var finished = Promise.all(active.map(function (a) { return a.finished.catch(function () {}); }));" +
+            "    var expired = new Promise(function (resolve) { setTimeout(resolve, remaining); });" +
+            "    Promise.race([finished, expired]).then(function () { nextFrame(tick); });" +
+            "    return;" +
+            "  }" +
+            "  var current = signature();" +
+            "  if (current === last) { if (++stableFrames >= 2) { done(true); return; } }" +
+            "  else { stableFrames = 0; last = current; }" +
+            "  nextFrame(tick);" +
+            "}" +
+            "nextFrame(tick);";
+
+    // Arms an in-page watcher before an action: the first input event the action delivers starts
+    // the clock (event.timeStamp); every frame after that compares the root's subtree and its
+    // running animations, nothing else on the page. Frameworks often replace the root itself, so
+    // once it is detached its former container is watched instead. The transition ends at the last
+    // frame that still changed, once nothing has changed for two frames.
+    private static final String TRANSITION_ARM_SCRIPT =
+            "var root = arguments[0], name = arguments[1], timeout = arguments[2];" +
+            "var container = root.parentElement || document.body;" +
+            "function scope() { return root.isConnected ? root : container; }" +
+            "var nextFrame = document.hidden ? function (f) { setTimeout(function () { f(performance.now()); }, 16); }" +
+            "                                : requestAnimationFrame.bind(window);" +
+            "var state = {start: null, end: null, changed: false, settled: false, done: false, frames: 0," +
+            "             animations: 0, waiters: []};" +
+            "(window.__galleryTransitions = window.__galleryTransitions || {})[name] = state;" +
+            "function running() {" +
+            "  var list = scope().getAnimations({subtree: true});" +
+            "  return list.filter(function (a) {" +
+            "    var timing = a.effect && a.effect.getTiming ? a.effect.getTiming() : {};" +
+            "    return (a.playState === 'running' || a.pending) && timing.iterations !== Infinity;" +
+            "  });" +
+            "}" +
+            "function signature() {" +
+            "  var el = scope();" +
+            "  var r = el.getBoundingClientRect(), cs = getComputedStyle(el);" +
+            "  var parts = [r.x, r.y, r.width, r.height, cs.opacity, cs.transform, el.childElementCount," +
+            "               (el.textContent || '').length];" +
+            "  var styled = el.querySelectorAll('[style],[hidden],[class]');" +
+            "  for (var i = 0; i < styled.length && i < 200; i++) {" +
+            "    parts.push(styled[i].getAttribute('style'), styled[i].hidden, styled[i].className);" +
+            "  }" +
+            "  return parts.join('|');" +
+            "}" +
+            "var events = ['pointerdown', 'mousedown', 'keydown', 'click'];" +
+            "function onInput(event) {" +
+            "  state.cancel();" +
+            "  state.start = event.timeStamp;" +
+            "  var last = signature(), lastChange = state.start, stable = 0, seen = [];" +
+            "  function finish(settled) {" +
+            "    state.end = state.changed ? lastChange : state.start;" +
+            "    state.settled = settled;" +
+            "    state.done = true;" +
+            "    try { performance.measure(name, {start: state.start, end: state.end}); } catch (e) { /* no User Timing L3 */ }" +
+            "    state.waiters.forEach(function (w) { w(); });" +
+            "  }" +
+            "  function tick(ts) {" +
+            "    state.frames++;" +
+            "    var active = running(), current = signature();" +
+            "    active.forEach(function (a) { if (seen.indexOf(a) < 0) { seen.push(a); state.animations++; } });" +
+            "    if (active.length || current !== last) {" +
+            "      state.changed = true; lastChange = ts; last = current; stable = 0;" +
+            "    } else if (++stable >= 2 && (state.changed || ts - state.start > 100)) {" +
+            "      finish(true); return;" +
+            "    }" +
+            "    if (ts - state.start > timeout) { finish(false); return; }" +
+            "    nextFrame(tick);" +
+            "  }" +
+            "  nextFrame(tick);" +
+            "}" +
+            "state.cancel = function () {" +
+            "  events.forEach(function (type) { window.removeEventListener(type, onInput, true); });" +
+            "};" +
+            "events.forEach(function (type) { window.addEventListener(type, onInput, true); });";
+
+    private static final String TRANSITION_RESULT_SCRIPT =
+            "var name = arguments[0], state = (window.__galleryTransitions || {})[name], done = arguments[arguments.length - 1];" +
+            "if (!state || state.start === null) { if (state) { state.cancel(); } done(null); return; }" +
+            "function result() {" +
+            "  delete window.__galleryTransitions[name];" +
+            "  return {start: state.start, end: state.end, changed: state.changed, settled: state.settled," +
+            "          frames: state.frames, animations: state.animations};" +
+            "}" +
+            "if (state.done) { done(result()); } else { state.waiters.push(function () { done(result()); }); }";
+
+    // Locates every declared element and reads its state in a single round trip
+    private static final String SNAPSHOT_SCRIPT =
+            "var specs = arguments[0], out = {};" +
+            "function find(s) {" +
+            "  try {" +
+            "    if (s.kind === 'id') { return document.getElementById(s.value); }" +
+            "    if (s.kind === 'css') { return document.querySelector(s.value); }" +
+            "    return document.evaluate(s.value, document, null," +
+            "        XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;" +
+            "  } catch (e) { return null; }" +
+            "}" +
+            "function visible(el) {" +
+            "  if (!el.getClientRects().length) { return false; }" +
+            "  if (el.checkVisibility) { return el.checkVisibility({checkOpacity: true, checkVisibilityCSS: true}); }" +
+            "  var cs = getComputedStyle(el);" +
+            "  return cs.visibility !== 'hidden' && cs.opacity !== '0';" +
+            "}" +
+            "specs.forEach(function (s) {" +
+            "  var el = find(s);" +
+            "  if (!el) { out[s.name] = {present: false}; return; }" +
+            "  var shown = visible(el), attrs = {};" +
+            "  for (var i = 0; i < el.attributes.length; i++) { attrs[el.attributes[i].name] = el.attributes[i].value; }" +
+            "  out[s.name] = {present: true, displayed: shown, text: shown ? (el.innerText || '').trim() : ''," +
+            "    tag: el.tagName.toLowerCase(), value: el.value === undefined ? null : String(el.value)," +
+            "    enabled: !el.disabled, attributes: attrs};" +
+            "});" +
+            "return out;";
+
+    private static final Map<Class<?>, List<Map<String, String>>> snapshotSpecs = new ConcurrentHashMap<>();
+
     protected WebDriver driver;
     protected WebDriverWait wait;
 
     public BasePage() {
         this.driver = WebDriverManagerUtil.getDriver();
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        PageFactory.initElements(driver, this);
+        this.wait = waitUpTo(DEFAULT_TIMEOUT);
+        if (ELEMENT_CACHE_ENABLED) {
+            PageFactory.initElements(new ElementCache(driver).fieldDecorator(), this);
+        } else {
+            PageFactory.initElements(field -> new DefaultElementLocator(driver, LocatorCompiler.annotationsFor(field)), this);
+        }
+    }
+
+    protected WebDriverWait waitUpTo(Duration timeout) {
+        return waitUpTo(timeout, POLLING_INTERVAL);
+    }
+
+    protected WebDriverWait waitUpTo(Duration timeout, Duration pollingInterval) {
+        return new WebDriverWait(driver, timeout, pollingInterval);
     }
 
     protected void clickElement(WebElement element) {
         wait.until(ExpectedConditions.elementToBeClickable(element)).click();
+        ElementCache.recordInteraction();
+        FlightRecorder.record(driver, "click");
     }
 
 
@@ -29,16 +216,231 @@ public class BasePage {
         wait.until(ExpectedConditions.visibilityOf(element));
         element.clear();
         element.sendKeys(text);
+        ElementCache.recordInteraction();
+        FlightRecorder.record(driver, "type");
     }
 
     protected boolean isElementDisplayed(WebElement element) {
+        return isElementDisplayed(element, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Wait up to the given timeout for the element to become visible.
+     * Returns immediately when it already is. The implicit wait is off meanwhile, so each
+     * poll of a missing element answers at once and the timeout is the only bound.
+     */
+    protected boolean isElementDisplayed(WebElement element, Duration timeout) {
+        return withoutImplicitWait(() -> {
+            if (isDisplayedNow(element)) {
+                return true;
+            }
+            if (timeout.isZero() || timeout.isNegative()) {
+                return false;
+            }
+            try {
+                waitUpTo(timeout).until(ExpectedConditions.visibilityOf(element));
+                return true;
+            } catch (TimeoutException e) {
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Wait up to the given timeout for the element to disappear or never render.
+     * Returns immediately when it is already gone.
+     */
+    protected boolean isElementAbsent(WebElement element, Duration timeout) {
+        if (!withoutImplicitWait(() -> isDisplayedNow(element))) {
+            return true;
+        }
         try {
-            return wait.until(ExpectedConditions.visibilityOf(element)).isDisplayed();
-        } catch (Exception e) {
+            return waitUpTo(timeout).until(ExpectedConditions.invisibilityOf(element));
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Single lookup without waiting: true when the element is in the DOM, visible or not
+     */
+    protected boolean isElementPresent(WebElement element) {
+        return withoutImplicitWait(() -> {
+            try {
+                element.getTagName();
+                return true;
+            } catch (NoSuchElementException | StaleElementReferenceException e) {
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Run a lookup with the session's implicit wait off, so a missing element answers at once
+     */
+    private <T> T withoutImplicitWait(Supplier<T> lookup) {
+        Duration implicit = WebDriverManagerUtil.implicitWait();
+        if (implicit.isZero()) {
+            return lookup.get();
+        }
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        try {
+            return lookup.get();
+        } finally {
+            driver.manage().timeouts().implicitlyWait(implicit);
+        }
+    }
+
+    private static boolean isDisplayedNow(WebElement element) {
+        try {
+            return element.isDisplayed();
+        } catch (NoSuchElementException | StaleElementReferenceException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Wait until animations and transitions on the whole page have finished
+     */
+    protected boolean waitForAnimationsToFinish(Duration timeout) {
+        return waitForUiToSettle(null, timeout, false);
+    }
+
+    /**
+     * Wait until animations and transitions on the element and its subtree have finished
+     */
+    protected boolean waitForAnimationsToFinish(WebElement root, Duration timeout) {
+        return waitForUiToSettle(root, timeout, false);
+    }
+
+    /**
+     * Wait until the element is hovered and its hover transition has settled
+     */
+    protected boolean waitForHoverStyle(WebElement element, Duration timeout) {
+        return waitForUiToSettle(element, timeout, true);
+    }
+
+    private boolean waitForUiToSettle(WebElement root, Duration timeout, boolean requireHover) {
+        try {
+            Object settled = ((JavascriptExecutor) driver).executeAsyncScript(
+                    UI_SETTLED_SCRIPT, root, timeout.toMillis(), requireHover);
+            return Boolean.TRUE.equals(settled);
+        } catch (NoSuchElementException | StaleElementReferenceException | ScriptTimeoutException e) {
             return false;
         }
     }
 
+    /**
+     * Run the action and time, inside the browser, the transition it triggers in root's subtree
+     */
+    @SuppressWarnings("unchecked")
+    protected TransitionTiming measureTransition(String name, WebElement root, Runnable action) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        js.executeScript(TRANSITION_ARM_SCRIPT, root, name, ANIMATION_TIMEOUT.toMillis());
+        action.run();
+        Map<String, Object> raw = (Map<String, Object>) js.executeAsyncScript(TRANSITION_RESULT_SCRIPT, name);
+        if (raw == null) {
+            throw new IllegalStateException("No input event reached the page during " + name
+                    + " (the action sent none, or the page navigated away)");
+        }
+        return new TransitionTiming(name, raw);
+    }
+
+    /**
+     * Visibility, text and attributes of every @FindBy field of this page, in one executeScript call
+     */
+    @SuppressWarnings("unchecked")
+    public PageSnapshot snapshot() {
+        List<Map<String, String>> specs = snapshotSpecs.computeIfAbsent(getClass(), BasePage::snapshotSpecsFor);
+        Map<String, Object> raw = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(SNAPSHOT_SCRIPT, specs);
+
+        Map<String, PageSnapshot.ElementState> elements = new LinkedHashMap<>();
+        for (Map<String, String> spec : specs) {
+            Map<String, Object> state = (Map<String, Object>) raw.get(spec.get("name"));
+            elements.put(spec.get("name"), toElementState(state));
+        }
+        return new PageSnapshot(elements);
+    }
+
+    /**
+     * Take snapshots until the condition holds; on timeout the last snapshot is returned
+     * so the caller's assertions report what the page actually showed
+     */
+    public PageSnapshot awaitSnapshot(Predicate<PageSnapshot> condition) {
+        return awaitSnapshot(condition, DEFAULT_TIMEOUT);
+    }
+
+    public PageSnapshot awaitSnapshot(Predicate<PageSnapshot> condition, Duration timeout) {
+        PageSnapshot[] last = new PageSnapshot[1];
+        try {
+            return waitUpTo(timeout).until(d -> {
+                last[0] = snapshot();
+                return condition.test(last[0]) ? last[0] : null;
+            });
+        } catch (TimeoutException e) {
+            return last[0] != null ? last[0] : snapshot();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PageSnapshot.ElementState toElementState(Map<String, Object> state) {
+        if (state == null || !Boolean.TRUE.equals(state.get("present"))) {
+            return PageSnapshot.ElementState.ABSENT;
+        }
+        Map<String, String> attributes = new LinkedHashMap<>();
+        Map<String, Object> rawAttributes = (Map<String, Object>) state.get("attributes");
+        if (rawAttributes != null) {
+            rawAttributes.forEach((name, value) -> attributes.put(name, String.valueOf(value)));
+        }
+        return new PageSnapshot.ElementState(true,
+                Boolean.TRUE.equals(state.get("displayed")),
+                String.valueOf(state.get("text")),
+                String.valueOf(state.get("tag")),
+                state.get("value") == null ? null : String.valueOf(state.get("value")),
+                Boolean.TRUE.equals(state.get("enabled")),
+                attributes);
+    }
+
+    private static List<Map<String, String>> snapshotSpecsFor(Class<?> pageClass) {
+        List<Map<String, String>> specs = new ArrayList<>();
+        for (Class<?> type = pageClass; type != null && type != BasePage.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (field.getType() != WebElement.class || !field.isAnnotationPresent(FindBy.class)) {
+                    continue;
+                }
+                String locator = LocatorCompiler.locatorFor(field).toString();
+                int separator = locator.indexOf(": ");
+                String strategy = locator.substring(0, separator);
+                String value = locator.substring(separator + 2);
+                String kind;
+                switch (strategy) {
+                    case "By.id":
+                        kind = "id";
+                        break;
+                    case "By.cssSelector":
+                        kind = "css";
+                        break;
+                    case "By.name":
+                        kind = "css";
+                        value = "[name=" + LocatorCompiler.cssString(value) + "]";
+                        break;
+                    case "By.xpath":
+                        kind = "xpath";
+                        break;
+                    default:
+                        throw new IllegalStateException("Snapshot cannot evaluate locator " + locator
+                                + " of " + pageClass.getSimpleName() + "." + field.getName());
+                }
+                Map<String, String> spec = new HashMap<>();
+                spec.put("name", field.getName());
+                spec.put("kind", kind);
+                spec.put("value", value);
+                specs.add(spec);
+            }
+        }
+        return Collections.unmodifiableList(specs);
+    }
+
     protected String getElementText(WebElement element) {
         try {
             return wait.until(ExpectedConditions.visibilityOf(element)).getText();
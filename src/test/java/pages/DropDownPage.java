@@ -5,8 +5,7 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-
-import java.time.Duration;
+import utils.PagePerformance;
 
 public class DropDownPage extends BasePage {
 
@@ -31,8 +30,17 @@ public class DropDownPage extends BasePage {
     }
 
     public void clickAvatar() {
+        PagePerformance.startAction(driver);
         clickElement(avatarImage);
         waitForDropdownToLoad();
+        PagePerformance.endAction(driver, "avatarMenu");
+    }
+
+    /**
+     * Open the avatar menu, timed in the browser from the click until the menu has settled
+     */
+    public TransitionTiming measureDropdownOpening() {
+        return measureTransition("avatarMenu.open", dropdownMenu, this::clickAvatar);
     }
 
     public boolean isDropdownVisible() {
@@ -41,6 +49,7 @@ public class DropDownPage extends BasePage {
 
     private void waitForDropdownToLoad() {
         wait.until(driver -> isDropdownVisible());
+        waitForAnimationsToFinish(dropdownMenu, ANIMATION_TIMEOUT);
     }
 
     public void clickChangePassword(){
@@ -56,7 +65,9 @@ public class DropDownPage extends BasePage {
                 By.xpath("//button[contains(., '" + label + "')]")
         ));
         Actions actions = new Actions(driver);
-        actions.moveToElement(menuItem).pause(Duration.ofSeconds(1)).perform();
+        actions.moveToElement(menuItem).perform();
+        ElementCache.recordInteraction();
+        waitForHoverStyle(menuItem, ANIMATION_TIMEOUT);
     }
 
     public void clickLogout() {
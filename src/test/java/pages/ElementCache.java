@@ -0,0 +1,173 @@
+package pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keeps the WebElements resolved for one page object so repeated reads skip findElement.
+ * <p>
+ * Entries are dropped when the DOM epoch changes. The epoch is a counter that a
+ * MutationObserver bumps on structural, text or locator-relevant attribute changes,
+ * plus an id that changes with every new document. It is only read again after the
+ * current thread has interacted with the page. A stale entry found in between is
+ * re-resolved and the call retried once.
+ */
+class ElementCache implements ElementLocatorFactory {
+
+    private static final String EPOCH_SCRIPT =
+            "var w = window;" +
+            "if (!w.__galleryDomEpoch) {" +
+            "  var state = {id: Math.random().toString(36).slice(2), epoch: 0};" +
+            "  new MutationObserver(function () { state.epoch++; }).observe(document, {" +
+            "    childList: true, subtree: true, characterData: true, attributes: true," +
+            "    attributeFilter: ['class', 'id', 'name', 'type', 'alt', 'data-testid']});" +
+            "  w.__galleryDomEpoch = state;" +
+            "}" +
+            "return w.__galleryDomEpoch.id + ':' + w.__galleryDomEpoch.epoch;";
+
+    // Interactions on this thread's driver; a changed count means the DOM may have changed
+    private static final ThreadLocal<long[]> interactions = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final WebDriver driver;
+    private long validatedAtInteraction = -1;
+    private String epoch;
+    private long generation;
+
+    ElementCache(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Note that the page may have changed, so cached elements are re-validated before the next read
+     */
+    static void recordInteraction() {
+        interactions.get()[0]++;
+    }
+
+    @Override
+    public ElementLocator createLocator(Field field) {
+        return new CachedLocator(LocatorCompiler.locatorFor(field));
+    }
+
+    /**
+     * Field decorator that hands out proxies backed by this cache
+     */
+    DefaultFieldDecorator fieldDecorator() {
+        return new DefaultFieldDecorator(this) {
+            @Override
+            protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+                return (WebElement) Proxy.newProxyInstance(loader,
+                        new Class[]{WebElement.class, WrapsElement.class, Locatable.class},
+                        new SelfHealingHandler(locator));
+            }
+        };
+    }
+
+    private void ensureCurrent() {
+        long seen = interactions.get()[0];
+        if (seen == validatedAtInteraction) {
+            return;
+        }
+        String current;
+        try {
+            current = String.valueOf(((JavascriptExecutor) driver).executeScript(EPOCH_SCRIPT));
+        } catch (WebDriverException e) {
+            current = null;
+        }
+        if (current == null || !current.equals(epoch)) {
+            generation++;
+        }
+        epoch = current;
+        validatedAtInteraction = seen;
+    }
+
+    final class CachedLocator implements ElementLocator {
+        private final By by;
+        private WebElement element;
+        private long elementGeneration = -1;
+
+        private CachedLocator(By by) {
+            this.by = by;
+        }
+
+        @Override
+        public WebElement findElement() {
+            ensureCurrent();
+            if (element == null || elementGeneration != generation) {
+                element = driver.findElement(by);
+                elementGeneration = generation;
+            }
+            return element;
+        }
+
+        @Override
+        public List<WebElement> findElements() {
+            return driver.findElements(by);
+        }
+
+        void invalidate() {
+            element = null;
+        }
+
+        @Override
+        public String toString() {
+            return "cached " + by;
+        }
+    }
+
+    private static final class SelfHealingHandler implements InvocationHandler {
+        private final ElementLocator locator;
+
+        private SelfHealingHandler(ElementLocator locator) {
+            this.locator = Objects.requireNonNull(locator);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            WebElement element;
+            try {
+                element = locator.findElement();
+            } catch (NoSuchElementException e) {
+                if ("toString".equals(method.getName())) {
+                    return "Proxy element for: " + locator;
+                }
+                throw e;
+            }
+            if ("getWrappedElement".equals(method.getName())) {
+                return element;
+            }
+            try {
+                return method.invoke(element, args);
+            } catch (InvocationTargetException e) {
+                if (!(e.getCause() instanceof StaleElementReferenceException)
+                        || !(locator instanceof CachedLocator)) {
+                    throw e.getCause();
+                }
+            }
+            ((CachedLocator) locator).invalidate();
+            try {
+                return method.invoke(locator.findElement(), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package pages;
 
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
+import utils.PagePerformance;
 
 public class HomePage extends BasePage {
 
@@ -10,8 +11,14 @@ public class HomePage extends BasePage {
     private WebElement profileButton;
 
     public AuthFormPage clickProfileButton() {
+        PagePerformance.startAction(driver);
         clickElement(profileButton);
-        return new AuthFormPage();
+        AuthFormPage authFormPage = new AuthFormPage();
+        if (PagePerformance.ENABLED) {
+            authFormPage.waitUntilInteractive();
+            PagePerformance.endAction(driver, "authForm");
+        }
+        return authFormPage;
     }
 
     public boolean isProfileButtonVisible()
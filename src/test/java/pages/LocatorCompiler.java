@@ -0,0 +1,301 @@
+package pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import utilities.ConfigReader;
+import utils.TestLog;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites page object locators into the cheapest equivalent strategy: id, data-testid,
+ * CSS, and XPath only when nothing else can express the query (text() matching,
+ * mixed and/or, positional predicates).
+ * <p>
+ * Supported XPath shape: {@code //tag[pred]}, where pred joins only with "and" or only
+ * with "or" the atoms {@code @a='v'}, {@code @a}, {@code contains(@a,'v')} and
+ * {@code starts-with(@a,'v')}. These map to CSS attribute selectors with the same
+ * matches and the same document order.
+ */
+public final class LocatorCompiler {
+
+    public enum Strategy { ID, TEST_ID, CSS, XPATH }
+
+    public static final class CompiledLocator {
+        private final By by;
+        private final Strategy strategy;
+        private final String source;
+        private final String fallbackReason;
+
+        private CompiledLocator(By by, Strategy strategy, String source, String fallbackReason) {
+            this.by = by;
+            this.strategy = strategy;
+            this.source = source;
+            this.fallbackReason = fallbackReason;
+        }
+
+        public By by() {
+            return by;
+        }
+
+        public Strategy strategy() {
+            return strategy;
+        }
+
+        public String source() {
+            return source;
+        }
+
+        public boolean isSlowPath() {
+            return strategy == Strategy.XPATH;
+        }
+
+        public String fallbackReason() {
+            return fallbackReason;
+        }
+
+        @Override
+        public String toString() {
+            return strategy + " " + by + (isSlowPath() ? " (" + fallbackReason + ")" : "");
+        }
+    }
+
+    private static final Pattern PATH = Pattern.compile("^//([A-Za-z][\\w-]*|\\*)\\[(.+)]$");
+    private static final Pattern NAME = Pattern.compile("[A-Za-z_][\\w-]*");
+    private static final String VALUE = "\\s*(?:'([^'\\\\]*)'|\"([^\"\\\\]*)\")\\s*";
+    private static final Pattern EQUALS = Pattern.compile("^@([A-Za-z_][\\w-]*)\\s*=" + VALUE + "$");
+    private static final Pattern EXISTS = Pattern.compile("^@([A-Za-z_][\\w-]*)$");
+    private static final Pattern FUNCTION = Pattern.compile(
+            "^(contains|starts-with)\\(\\s*@([A-Za-z_][\\w-]*)\\s*," + VALUE + "\\)$");
+
+    private static final boolean ENABLED = ConfigReader.getBoolean("locators.compile", false);
+
+    private static final Map<String, CompiledLocator> compiled = new ConcurrentHashMap<>();
+
+    private LocatorCompiler() {
+    }
+
+    /**
+     * Locator for a page object field: its annotation, compiled when locators.compile is set
+     */
+    static By locatorFor(Field field) {
+        return annotationsFor(field).buildBy();
+    }
+
+    /**
+     * PageFactory annotations for a field whose buildBy() returns the compiled locator
+     */
+    static Annotations annotationsFor(Field field) {
+        return new Annotations(field) {
+            @Override
+            public By buildBy() {
+                By declared = super.buildBy();
+                return ENABLED ? compile(declared).by() : declared;
+            }
+        };
+    }
+
+    /**
+     * Compile a locator, reusing earlier results; XPath fallbacks are logged once
+     */
+    public static CompiledLocator compile(By by) {
+        return compiled.computeIfAbsent(by.toString(), key -> {
+            CompiledLocator result = doCompile(by);
+            if (result.isSlowPath()) {
+                TestLog.log("Slow locator kept as XPath (" + result.fallbackReason() + "): " + result.source());
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Every locator compiled so far that still runs as a full-document XPath scan
+     */
+    public static List<CompiledLocator> slowLocators() {
+        List<CompiledLocator> slow = new ArrayList<>();
+        for (CompiledLocator locator : compiled.values()) {
+            if (locator.isSlowPath()) {
+                slow.add(locator);
+            }
+        }
+        return slow;
+    }
+
+    public static Collection<CompiledLocator> compiledLocators() {
+        return new ArrayList<>(compiled.values());
+    }
+
+    private static CompiledLocator doCompile(By by) {
+        String description = by.toString();
+        if (description.startsWith("By.id: ")) {
+            return new CompiledLocator(by, Strategy.ID, description, null);
+        }
+        if (!description.startsWith("By.xpath: ")) {
+            // css, name, className, tagName, linkText: already native lookups
+            return new CompiledLocator(by, Strategy.CSS, description, null);
+        }
+        return compileXPath(by, description.substring("By.xpath: ".length()).trim());
+    }
+
+    private static CompiledLocator compileXPath(By by, String xpath) {
+        Matcher path = PATH.matcher(xpath);
+        if (!path.matches()) {
+            return keepXPath(by, xpath, "not a single //tag[predicate] step");
+        }
+        String tag = path.group(1);
+        String predicate = stripParentheses(path.group(2).trim());
+
+        List<String> andTerms = splitTopLevel(predicate, "and");
+        List<String> orTerms = splitTopLevel(predicate, "or");
+        if (andTerms.size() > 1 && orTerms.size() > 1) {
+            return keepXPath(by, xpath, "mixed and/or");
+        }
+        boolean disjunction = orTerms.size() > 1;
+        List<String> terms = disjunction ? orTerms : andTerms;
+
+        String cssTag = "*".equals(tag) ? "" : tag;
+        List<String> selectors = new ArrayList<>();
+        for (String term : terms) {
+            String atom = stripParentheses(term.trim());
+            String selector = toAttributeSelector(atom);
+            if (selector == null) {
+                boolean textMatch = atom.contains("text()") || atom.startsWith("contains(.") || atom.contains("normalize-space");
+                return keepXPath(by, xpath, textMatch ? "text() match" : "unsupported predicate: " + atom);
+            }
+            selectors.add(selector);
+        }
+
+        if (selectors.size() == 1 && cssTag.isEmpty()) {
+            Matcher equals = EQUALS.matcher(stripParentheses(terms.get(0).trim()));
+            if (equals.matches() && "id".equals(equals.group(1))) {
+                String id = value(equals);
+                if (NAME.matcher(id).matches()) {
+                    return new CompiledLocator(By.id(id), Strategy.ID, xpath, null);
+                }
+            }
+        }
+
+        String css;
+        if (disjunction) {
+            List<String> alternatives = new ArrayList<>();
+            for (String selector : selectors) {
+                alternatives.add(cssTag + selector);
+            }
+            css = String.join(", ", alternatives);
+        } else {
+            css = cssTag + String.join("", selectors);
+        }
+        Strategy strategy = selectors.size() == 1 && selectors.get(0).startsWith("[data-testid=")
+                ? Strategy.TEST_ID : Strategy.CSS;
+        return new CompiledLocator(By.cssSelector(css), strategy, xpath, null);
+    }
+
+    private static CompiledLocator keepXPath(By by, String xpath, String reason) {
+        return new CompiledLocator(by, Strategy.XPATH, xpath, reason);
+    }
+
+    /**
+     * CSS attribute selector for one predicate atom, or null when CSS cannot express it
+     */
+    private static String toAttributeSelector(String term) {
+        Matcher equals = EQUALS.matcher(term);
+        if (equals.matches()) {
+            return "[" + equals.group(1) + "=" + cssString(value(equals)) + "]";
+        }
+        Matcher exists = EXISTS.matcher(term);
+        if (exists.matches()) {
+            return "[" + exists.group(1) + "]";
+        }
+        Matcher function = FUNCTION.matcher(term);
+        if (function.matches()) {
+            String operator = "contains".equals(function.group(1)) ? "*=" : "^=";
+            String value = function.group(3) != null ? function.group(3) : function.group(4);
+            if (value.isEmpty()) {
+                // contains(@a, '') is true for any present attribute; CSS *='' never matches
+                return "[" + function.group(2) + "]";
+            }
+            return "[" + function.group(2) + operator + cssString(value) + "]";
+        }
+        return null;
+    }
+
+    private static String value(Matcher matcher) {
+        return matcher.group(2) != null ? matcher.group(2) : matcher.group(3);
+    }
+
+    /**
+     * A value as a quoted CSS string, e.g. an XPath literal or a By.name value; either may hold an apostrophe
+     */
+    static String cssString(String value) {
+        return "'" + value.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+
+    /**
+     * Remove parentheses wrapping the whole expression, e.g. "(a or b)" -> "a or b"
+     */
+    private static String stripParentheses(String expression) {
+        String result = expression;
+        while (result.startsWith("(") && result.endsWith(")") && closingParen(result, 0) == result.length() - 1) {
+            result = result.substring(1, result.length() - 1).trim();
+        }
+        return result;
+    }
+
+    private static int closingParen(String expression, int open) {
+        int depth = 0;
+        char quote = 0;
+        for (int i = open; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Split on " and " / " or " outside quotes, parentheses and brackets
+     */
+    private static List<String> splitTopLevel(String expression, String operator) {
+        List<String> parts = new ArrayList<>();
+        String token = " " + operator + " ";
+        int depth = 0;
+        char quote = 0;
+        int start = 0;
+        for (int i = 0; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '(' || c == '[') {
+                depth++;
+            } else if (c == ')' || c == ']') {
+                depth--;
+            } else if (depth == 0 && expression.startsWith(token, i)) {
+                parts.add(expression.substring(start, i));
+                start = i + token.length();
+                i = start - 1;
+            }
+        }
+        parts.add(expression.substring(start));
+        return parts;
+    }
+}
@@ -0,0 +1,67 @@
+package pages;
+
+import org.openqa.selenium.By;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * XPath-to-CSS rewrites and their XPath fallbacks; compiled from locator strings only, no browser involved
+ */
+public class LocatorCompilerTest {
+
+    @Test(groups = {"unit"}, description = "Native strategies pass through unchanged")
+    public void testNativeLocatorsPassThrough() {
+        assertCompiled(By.id("login-btn"), LocatorCompiler.Strategy.ID, By.id("login-btn"));
+        assertCompiled(By.name("email"), LocatorCompiler.Strategy.CSS, By.name("email"));
+        assertCompiled(By.cssSelector(".avatar"), LocatorCompiler.Strategy.CSS, By.cssSelector(".avatar"));
+    }
+
+    @Test(groups = {"unit"}, description = "Each supported predicate form becomes the matching CSS selector")
+    public void testSupportedForms() {
+        assertCompiled(By.xpath("//*[@id='login-btn']"), LocatorCompiler.Strategy.ID, By.id("login-btn"));
+        assertCompiled(By.xpath("//*[@id='user.name']"), LocatorCompiler.Strategy.CSS, By.cssSelector("[id='user.name']"));
+        assertCompiled(By.xpath("//button[@data-testid='submit']"), LocatorCompiler.Strategy.TEST_ID,
+                By.cssSelector("button[data-testid='submit']"));
+        assertCompiled(By.xpath("//input[@type='email' and @required]"), LocatorCompiler.Strategy.CSS,
+                By.cssSelector("input[type='email'][required]"));
+        assertCompiled(By.xpath("//a[contains(@href, 'gallery') or starts-with(@href, \"/art\")]"),
+                LocatorCompiler.Strategy.CSS, By.cssSelector("a[href*='gallery'], a[href^='/art']"));
+        assertCompiled(By.xpath("//div[(@role='dialog')]"), LocatorCompiler.Strategy.CSS,
+                By.cssSelector("div[role='dialog']"));
+    }
+
+    @Test(groups = {"unit"}, description = "contains() with an empty string matches any element carrying the attribute")
+    public void testEmptyContains() {
+        assertCompiled(By.xpath("//div[contains(@class, '')]"), LocatorCompiler.Strategy.CSS, By.cssSelector("div[class]"));
+    }
+
+    @Test(groups = {"unit"}, description = "An apostrophe in a double-quoted literal is escaped in the CSS string")
+    public void testQuoteEscaping() {
+        assertCompiled(By.xpath("//a[@title=\"Artist's page\"]"), LocatorCompiler.Strategy.CSS,
+                By.cssSelector("a[title='Artist\\'s page']"));
+    }
+
+    @Test(groups = {"unit"}, description = "Queries CSS cannot express stay XPath with the reason recorded")
+    public void testFallbacks() {
+        assertKeptAsXPath("//div/a[@href]", "not a single //tag[predicate] step");
+        assertKeptAsXPath("//div[@a='x' and @b or @c]", "mixed and/or");
+        assertKeptAsXPath("//button[text()='Login']", "text() match");
+        assertKeptAsXPath("//span[normalize-space(.)='Profile']", "text() match");
+        assertKeptAsXPath("//li[2]", "unsupported predicate: 2");
+        assertKeptAsXPath("//a[@title='C:\\art']", "unsupported predicate: @title='C:\\art'");
+    }
+
+    private static void assertCompiled(By declared, LocatorCompiler.Strategy strategy, By expected) {
+        LocatorCompiler.CompiledLocator compiled = LocatorCompiler.compile(declared);
+        Assert.assertEquals(compiled.strategy(), strategy, declared.toString());
+        Assert.assertEquals(compiled.by(), expected, declared.toString());
+        Assert.assertFalse(compiled.isSlowPath(), declared.toString());
+    }
+
+    private static void assertKeptAsXPath(String xpath, String reason) {
+        LocatorCompiler.CompiledLocator compiled = LocatorCompiler.compile(By.xpath(xpath));
+        Assert.assertTrue(compiled.isSlowPath(), xpath);
+        Assert.assertEquals(compiled.by(), By.xpath(xpath));
+        Assert.assertEquals(compiled.fallbackReason(), reason, xpath);
+    }
+}
@@ -0,0 +1,111 @@
+package pages;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable state of every declared element of a page object, read in one script call.
+ * Assertions on a snapshot cost no further WebDriver round trips.
+ */
+public final class PageSnapshot {
+
+    public static final class ElementState {
+        static final ElementState ABSENT = new ElementState(false, false, "", null, null, false,
+                Collections.emptyMap());
+
+        private final boolean present;
+        private final boolean displayed;
+        private final String text;
+        private final String tagName;
+        private final String value;
+        private final boolean enabled;
+        private final Map<String, String> attributes;
+
+        ElementState(boolean present, boolean displayed, String text, String tagName, String value,
+                     boolean enabled, Map<String, String> attributes) {
+            this.present = present;
+            this.displayed = displayed;
+            this.text = text;
+            this.tagName = tagName;
+            this.value = value;
+            this.enabled = enabled;
+            this.attributes = Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+        }
+
+        public boolean isPresent() {
+            return present;
+        }
+
+        public boolean isDisplayed() {
+            return displayed;
+        }
+
+        /**
+         * Rendered text, empty when the element is absent or hidden (like WebElement.getText)
+         */
+        public String getText() {
+            return text;
+        }
+
+        public String getTagName() {
+            return tagName;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public String getAttribute(String name) {
+            return attributes.get(name);
+        }
+
+        public Map<String, String> getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public String toString() {
+            return present ? "<" + tagName + "> displayed=" + displayed + " text='" + text + "'" : "absent";
+        }
+    }
+
+    private final Map<String, ElementState> elements;
+
+    PageSnapshot(Map<String, ElementState> elements) {
+        this.elements = Collections.unmodifiableMap(new LinkedHashMap<>(elements));
+    }
+
+    /**
+     * State of the page object field with the given name
+     */
+    public ElementState element(String fieldName) {
+        ElementState state = elements.get(fieldName);
+        if (state == null) {
+            throw new IllegalArgumentException("No element field '" + fieldName + "' in snapshot " + elements.keySet());
+        }
+        return state;
+    }
+
+    public boolean isDisplayed(String fieldName) {
+        return element(fieldName).isDisplayed();
+    }
+
+    public String text(String fieldName) {
+        return element(fieldName).getText();
+    }
+
+    public Set<String> fieldNames() {
+        return elements.keySet();
+    }
+
+    @Override
+    public String toString() {
+        return elements.toString();
+    }
+}
@@ -0,0 +1,101 @@
+package pages;
+
+import utilities.ConfigReader;
+
+import java.util.Map;
+
+/**
+ * A UI transition timed inside the browser on the performance.now() clock: from the timestamp of
+ * the input event that triggered it to the last animation frame in which the watched area still
+ * changed. WebDriver round trips and polling intervals are not part of it; the resolution is one
+ * frame. Also recorded in the page as a User Timing measure under the same name, and checked
+ * against transition.budget.&lt;name&gt;.minMillis / maxMillis.
+ */
+public final class TransitionTiming {
+
+    private final String name;
+    private final double startMillis;
+    private final double endMillis;
+    private final boolean changed;
+    private final boolean settled;
+    private final int frames;
+    private final int animations;
+
+    TransitionTiming(String name, Map<String, Object> raw) {
+        this.name = name;
+        this.startMillis = ((Number) raw.get("start")).doubleValue();
+        this.endMillis = ((Number) raw.get("end")).doubleValue();
+        this.changed = Boolean.TRUE.equals(raw.get("changed"));
+        this.settled = Boolean.TRUE.equals(raw.get("settled"));
+        this.frames = ((Number) raw.get("frames")).intValue();
+        this.animations = ((Number) raw.get("animations")).intValue();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getDurationMillis() {
+        return endMillis - startMillis;
+    }
+
+    /**
+     * performance.now() of the triggering input event
+     */
+    public double getStartMillis() {
+        return startMillis;
+    }
+
+    public double getEndMillis() {
+        return endMillis;
+    }
+
+    /**
+     * False when nothing in the watched area changed after the input
+     */
+    public boolean isChanged() {
+        return changed;
+    }
+
+    /**
+     * False when the area was still changing at wait.animationTimeoutMillis
+     */
+    public boolean isSettled() {
+        return settled;
+    }
+
+    public int getFrames() {
+        return frames;
+    }
+
+    /**
+     * Web Animations (including CSS transitions) seen running during the transition
+     */
+    public int getAnimations() {
+        return animations;
+    }
+
+    /**
+     * Fail unless the transition settled within its transition.budget.&lt;name&gt; bounds
+     */
+    public TransitionTiming assertWithinBudget() {
+        if (!changed || !settled) {
+            throw new AssertionError("Transition did not complete: " + this);
+        }
+        String min = ConfigReader.get("transition.budget." + name + ".minMillis", "");
+        String max = ConfigReader.get("transition.budget." + name + ".maxMillis", "");
+        if (!min.isEmpty() && getDurationMillis() < Double.parseDouble(min)) {
+            throw new AssertionError("Transition faster than its " + min + " ms minimum: " + this);
+        }
+        if (!max.isEmpty() && getDurationMillis() > Double.parseDouble(max)) {
+            throw new AssertionError("Transition budget of " + max + " ms exceeded: " + this);
+        }
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %.1f ms (%d frames, %d animations%s%s)", name, getDurationMillis(), frames, animations,
+                changed ? "" : ", no visible change", settled ? "" : ", not settled");
+    }
+}
@@ -0,0 +1,73 @@
+package tests;
+
+import base.AuthApiClient;
+import base.StubGalleryServer;
+import data.LoginData;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Protocol-level auth flows against the local stub's /api/auth endpoints; no browser involved
+ */
+public class AuthApiTest {
+
+    private StubGalleryServer stub;
+    private AuthApiClient client;
+
+    @BeforeClass(groups = {"api"})
+    public void startStub() throws IOException {
+        stub = new StubGalleryServer(0);
+        client = new AuthApiClient(stub.start(0));
+    }
+
+    @AfterClass(groups = {"api"}, alwaysRun = true)
+    public void stopStub() {
+        if (stub != null) {
+            stub.stop();
+        }
+    }
+
+    @Test(priority = 1, groups = {"api"}, description = "Verify API login with valid credentials returns a token")
+    public void testApiLogin() {
+        AuthApiClient.AuthResult result = client.login(LoginData.VALID_EMAIL, LoginData.VALID_PASSWORD);
+
+        assertTrue(result.isSuccess(), "Login should succeed: " + result);
+        Assert.assertNotNull(result.getToken(), "Login should return a session token");
+    }
+
+    @Test(priority = 2, groups = {"api"}, description = "Verify API login with invalid credentials is rejected")
+    public void testApiInvalidLogin() {
+        AuthApiClient.AuthResult result = client.login(LoginData.VALID_EMAIL, LoginData.INVALID_PASSWORD);
+
+        Assert.assertEquals(result.getStatus(), 401, "Wrong password should be rejected");
+        Assert.assertEquals(result.getError(), "Invalid credentials");
+    }
+
+    @Test(priority = 3, groups = {"api"}, description = "Verify batch registration creates accounts that can log in")
+    public void testApiBatchRegistration() {
+        List<AuthApiClient.Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            accounts.add(new AuthApiClient.Account("Batch User " + i, "batch-" + i + "-" + System.nanoTime() + "@example.com",
+                    LoginData.Registration.PASSWORD));
+        }
+
+        List<AuthApiClient.AuthResult> results = client.registerAll(accounts);
+
+        for (AuthApiClient.AuthResult result : results) {
+            assertTrue(result.isSuccess(), "Registration should succeed: " + result);
+        }
+        AuthApiClient.Account last = accounts.get(accounts.size() - 1);
+        assertTrue(client.login(last.getEmail(), last.getPassword()).isSuccess(),
+                "A registered account should be able to log in");
+        Assert.assertEquals(client.register(last.getName(), last.getEmail(), last.getPassword()).getStatus(), 409,
+                "Registering the same email twice should be rejected");
+    }
+}
@@ -1,20 +1,27 @@
 package tests;
 
+import base.AuthSessionFixture;
 import base.BaseTest;
 import data.LoginData;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.testng.Assert;
-import org.testng.Reporter;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 import pages.AuthFormPage;
 import pages.DropDownPage;
 import pages.HomePage;
+import pages.TransitionTiming;
 import utilities.WebDriverManagerUtil;
+import utils.TestLog;
 import java.time.Duration;
 
+// The tests share one browser session, so keep the class on a single thread; each test
+// starts from its own logged-in or logged-out state via AuthSessionFixture
+@Test(singleThreaded = true)
 public class DropDownTest extends BaseTest {
+    private WebDriver driver;
     private HomePage homePage;
     private AuthFormPage authFormPage;
     private DropDownPage dropDownPage;
@@ -23,51 +30,58 @@ public class DropDownTest extends BaseTest {
     @Override
     @BeforeClass(groups = {"dropdown"}, dependsOnMethods = {"setUpClass"})
     public void initializePageObjects() {
-        Reporter.log("Initializing page objects for DropDownTest", true);
+        TestLog.log("Initializing page objects for DropDownTest");
+        driver = WebDriverManagerUtil.getDriver();
         homePage = new HomePage();
         authFormPage = new AuthFormPage();
         dropDownPage = new DropDownPage();
-        wait = new WebDriverWait(WebDriverManagerUtil.getDriver(), Duration.ofSeconds(10));
+        wait = new WebDriverWait(driver, Duration.ofSeconds(10));
     }
 
     @Test(priority = 1, groups = {"dropdown"})
     public void testLoginWithValidCredentials() {
+        AuthSessionFixture.startLoggedOut(driver);
         homePage.clickProfileButton();
         authFormPage.performLogin(LoginData.VALID_EMAIL, LoginData.VALID_PASSWORD);
         Assert.assertTrue(authFormPage.isLoginSuccessful(), "Login should be successful.");
     }
 
-    @Test(priority = 2, groups = {"dropdown"}, dependsOnMethods = {"testLoginWithValidCredentials"})
+    @Test(priority = 2, groups = {"dropdown"})
     public void testDropdownMenuIsVisible() {
+        AuthSessionFixture.startAuthenticated(driver);
         Assert.assertTrue(dropDownPage.isAvatarVisible(), "Avatar should be visible after login.");
         dropDownPage.clickAvatar();
         Assert.assertTrue(dropDownPage.isDropdownVisible(), "Dropdown menu should be visible.");
     }
 
-    @Test(priority = 3, groups = {"dropdown"}, dependsOnMethods = {"testDropdownMenuIsVisible"})
+    @Test(priority = 3, groups = {"dropdown"})
     public void testClickContactLink() {
+        AuthSessionFixture.startAuthenticated(driver);
+
         // Store current URL to ensure navigation happens
-        String currentUrl = WebDriverManagerUtil.getDriver().getCurrentUrl();
+        String currentUrl = driver.getCurrentUrl();
 
-        // Dropdown should already be open from previous test
+        dropDownPage.clickAvatar();
         dropDownPage.clickContact();
 
         // Wait for URL to change and contain "/contact"
         wait.until(ExpectedConditions.urlContains("/contact"));
 
         // Debug logging
-        String newUrl = WebDriverManagerUtil.getDriver().getCurrentUrl();
-        Reporter.log("Previous URL: " + currentUrl, true);
-        Reporter.log("New URL after clicking Contact: " + newUrl, true);
+        String newUrl = driver.getCurrentUrl();
+        TestLog.log("Previous URL: " + currentUrl);
+        TestLog.log("New URL after clicking Contact: " + newUrl);
 
         Assert.assertTrue(newUrl.contains("/contact"),
                 "Should navigate to Contact page. Current URL: " + newUrl);
     }
 
-    @Test(priority = 4, groups = {"dropdown"}, dependsOnMethods = {"testLoginWithValidCredentials"})
+    @Test(priority = 4, groups = {"dropdown"})
     public void testClickChangePassword() {
+        AuthSessionFixture.startAuthenticated(driver);
+
         // Store current URL to ensure navigation happens
-        String currentUrl = WebDriverManagerUtil.getDriver().getCurrentUrl();
+        String currentUrl = driver.getCurrentUrl();
 
         // This test is independent - open fresh dropdown
         dropDownPage.clickAvatar();
@@ -78,16 +92,18 @@ public class DropDownTest extends BaseTest {
         wait.until(ExpectedConditions.urlContains("/changepassword"));
 
         // Debug logging
-        String newUrl = WebDriverManagerUtil.getDriver().getCurrentUrl();
-        Reporter.log("Previous URL: " + currentUrl, true);
-        Reporter.log("New URL after clicking Change Password: " + newUrl, true);
+        String newUrl = driver.getCurrentUrl();
+        TestLog.log("Previous URL: " + currentUrl);
+        TestLog.log("New URL after clicking Change Password: " + newUrl);
 
         Assert.assertTrue(newUrl.contains("/changepassword"),
                 "Should navigate to Change password page. Current URL: " + newUrl);
     }
 
-    @Test(priority = 5, groups = {"dropdown"}, dependsOnMethods = {"testLoginWithValidCredentials"})
+    @Test(priority = 5, groups = {"dropdown"})
     public void testHoverOverDropDownItems() {
+        AuthSessionFixture.startAuthenticated(driver);
+
         // This test is independent - open fresh dropdown
         dropDownPage.clickAvatar();
 
@@ -105,4 +121,16 @@ public class DropDownTest extends BaseTest {
 
         Assert.assertTrue(homePage.isProfileButtonVisible(), "Should be redirected to login after logout.");
     }
-}
\ No newline at end of file
+
+    @Test(priority = 6, groups = {"dropdown"})
+    public void testDropdownOpeningTiming() {
+        AuthSessionFixture.startAuthenticated(driver);
+
+        // Measured in the page, from the click event to the last frame the menu changed
+        TransitionTiming opening = dropDownPage.measureDropdownOpening();
+        TestLog.log("[transition] " + opening);
+
+        Assert.assertTrue(dropDownPage.isDropdownVisible(), "Dropdown menu should be visible.");
+        opening.assertWithinBudget();
+    }
+}
@@ -0,0 +1,103 @@
+package tests;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Optional;
+import org.testng.annotations.Parameters;
+import org.testng.annotations.Test;
+import pages.AuthFormPage;
+import pages.DropDownPage;
+import pages.HomePage;
+import pages.LocatorCompiler;
+import utilities.WebDriverManagerUtil;
+import utils.TestLog;
+
+import java.lang.reflect.Field;
+
+/**
+ * Compares per-lookup latency of the declared XPath locators against their compiled form.
+ * Run with testng-benchmark.xml; not part of the functional suite.
+ */
+public class LocatorBenchmarkTest {
+
+    private static final int WARMUP = 10;
+    private static final int ITERATIONS = 100;
+
+    private WebDriver driver;
+
+    @BeforeClass(groups = {"benchmark"})
+    @Parameters({"headless"})
+    public void setUp(@Optional("true") String headless) {
+        WebDriverManagerUtil.initializeDriver(Boolean.parseBoolean(headless));
+        WebDriverManagerUtil.openBaseUrl();
+        driver = WebDriverManagerUtil.getDriver();
+        // Render the AuthForm so its locators have something to match
+        new HomePage().clickProfileButton().waitForModeTransition();
+    }
+
+    @AfterClass(groups = {"benchmark"}, alwaysRun = true)
+    public void tearDown() {
+        WebDriverManagerUtil.quitDriver();
+    }
+
+    @Test(groups = {"benchmark"}, description = "Compiled locators match the same elements, faster")
+    public void benchmarkCompiledLocators() {
+        for (Class<?> page : new Class<?>[]{HomePage.class, AuthFormPage.class, DropDownPage.class}) {
+            for (Field field : page.getDeclaredFields()) {
+                if (!field.isAnnotationPresent(FindBy.class)) {
+                    continue;
+                }
+                By declared = new Annotations(field).buildBy();
+                LocatorCompiler.CompiledLocator compiled = LocatorCompiler.compile(declared);
+                String name = page.getSimpleName() + "." + field.getName();
+                if (compiled.isSlowPath()) {
+                    TestLog.log(String.format("%-40s XPATH fallback (%s)", name, compiled.fallbackReason()));
+                    continue;
+                }
+
+                Assert.assertEquals(driver.findElements(compiled.by()), driver.findElements(declared),
+                        "Compiled locator must match the same elements for " + name);
+
+                double declaredMicros = microsPerLookup(declared);
+                double compiledMicros = microsPerLookup(compiled.by());
+                TestLog.log(String.format("%-40s %-7s xpath %8.0f us  compiled %8.0f us  (%.1fx)",
+                        name, compiled.strategy(), declaredMicros, compiledMicros, declaredMicros / compiledMicros));
+            }
+        }
+    }
+
+    @Test(groups = {"benchmark"}, description = "Quotes inside attribute values survive compilation")
+    public void compiledLocatorsEscapeQuotes() {
+        ((JavascriptExecutor) driver).executeScript(
+                "var a = document.createElement('a'); a.title = \"Artist's page\"; document.body.appendChild(a);");
+        for (String xpath : new String[]{"//a[@title=\"Artist's page\"]", "//a[contains(@title, \"'s pa\")]",
+                "//a[starts-with(@title, 'Artist')]"}) {
+            By declared = By.xpath(xpath);
+            LocatorCompiler.CompiledLocator compiled = LocatorCompiler.compile(declared);
+
+            Assert.assertFalse(compiled.isSlowPath(), "Should compile to CSS: " + compiled);
+            Assert.assertEquals(driver.findElements(compiled.by()), driver.findElements(declared),
+                    "Compiled locator must match the same elements for " + xpath);
+            Assert.assertEquals(driver.findElements(compiled.by()).size(), 1, "Should find the injected link: " + compiled);
+        }
+        Assert.assertEquals(LocatorCompiler.compile(By.xpath("//a[@title=\"Artist's page\"]")).by().toString(),
+                By.cssSelector("a[title='Artist\\'s page']").toString());
+    }
+
+    private double microsPerLookup(By by) {
+        for (int i = 0; i < WARMUP; i++) {
+            driver.findElements(by);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            driver.findElements(by);
+        }
+        return (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+    }
+}
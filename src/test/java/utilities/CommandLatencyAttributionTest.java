@@ -0,0 +1,56 @@
+package utilities;
+
+import org.openqa.selenium.support.pagefactory.internal.LocatingElementHandler;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.FluentWait;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import pages.BasePage;
+import pages.DropDownPage;
+import pages.HomePage;
+import tests.DropDownTest;
+import tests.LoginTest;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Which caller {@link CommandLatencyRecorder} credits a command to, for canned stacks; no browser involved
+ */
+public class CommandLatencyAttributionTest {
+
+    @Test(groups = {"unit"}, description = "A click through a BasePage helper is credited to the page object action")
+    public void testHelperClickCreditedToPageObject() {
+        // HomePage.clickProfileButton -> BasePage.clickElement -> click() on the PageFactory proxy
+        String[] origin = CommandLatencyRecorder.origin(
+                List.of(LocatingElementHandler.class, BasePage.class, HomePage.class, LoginTest.class, Method.class),
+                List.of("invoke", "clickElement", "clickProfileButton", "testValidLogin", "invoke"));
+
+        Assert.assertEquals(origin[0], "HomePage.clickProfileButton");
+        Assert.assertEquals(origin[1], "roundtrip");
+    }
+
+    @Test(groups = {"unit"}, description = "A lookup inside a BasePage wait is credited to the page object and marked as waiting")
+    public void testHelperWaitCreditedToPageObject() {
+        // DropDownPage.isDropdownVisible -> BasePage.isElementDisplayed polling visibilityOf with the implicit wait off
+        String[] origin = CommandLatencyRecorder.origin(
+                List.of(ExpectedConditions.class, FluentWait.class, BasePage.class, BasePage.class, BasePage.class,
+                        BasePage.class, DropDownPage.class, DropDownTest.class),
+                List.of("apply", "until", "lambda$isElementDisplayed$1", "withoutImplicitWait", "isElementDisplayed",
+                        "isElementDisplayed", "isDropdownVisible", "testDropdownMenuIsVisible"));
+
+        Assert.assertEquals(origin[0], "DropDownPage.isDropdownVisible");
+        Assert.assertEquals(origin[1], "wait");
+    }
+
+    @Test(groups = {"unit"}, description = "An inherited page method called straight from a test stays with the page")
+    public void testInheritedMethodCalledFromTest() {
+        // LoginTest calls authFormPage.awaitSnapshot, declared on BasePage, which polls snapshot()
+        String[] origin = CommandLatencyRecorder.origin(
+                List.of(BasePage.class, BasePage.class, FluentWait.class, BasePage.class, BasePage.class, LoginTest.class),
+                List.of("snapshot", "lambda$awaitSnapshot$4", "until", "awaitSnapshot", "awaitSnapshot",
+                        "testAuthFormInitialState"));
+
+        Assert.assertEquals(origin[0], "BasePage.snapshot");
+    }
+}
@@ -0,0 +1,86 @@
+package utilities;
+
+import com.sun.net.httpserver.HttpServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Slot admission from canned Selenium Grid 4 /status responses served locally; no grid involved
+ */
+@Test(singleThreaded = true)
+public class GridSlotSchedulerTest {
+
+    // Node 1 is UP with maxSessions 2: two idle chrome slots, but a firefox session already takes one
+    // of its two sessions. Node 2 is DRAINING and node 3 DOWN, so their idle slots do not count.
+    private static final String HUB_STATUS = "{\"value\": {\"ready\": true, \"message\": \"Selenium Grid ready.\", \"nodes\": ["
+            + node("http://10.0.0.1:5555", "UP", 2, slot("chrome", null), slot("chrome", null), slot("firefox", "ff-1"))
+            + ", " + node("http://10.0.0.2:5555", "DRAINING", 2, slot("chrome", null), slot("chrome", null))
+            + ", " + node("http://10.0.0.3:5555", "DOWN", 2, slot("chrome", null))
+            + "]}}";
+
+    private static final String GRID3_STATUS = "{\"value\": {\"ready\": true, \"message\": \"Hub has capacity\"}}";
+
+    private HttpServer server;
+
+    @AfterMethod(alwaysRun = true)
+    public void stopServer() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test(groups = {"unit"}, description = "Only UP nodes count, each capped at maxSessions across browsers")
+    public void testNodeCapacityFromStatus() throws IOException {
+        GridSlotScheduler scheduler = schedulerFor(HUB_STATUS);
+
+        GridSlotScheduler.Lease first = scheduler.acquire(Duration.ofSeconds(2));
+        Assert.assertThrows(IllegalStateException.class, () -> scheduler.acquire(Duration.ofMillis(300)));
+
+        first.release();
+        scheduler.acquire(Duration.ofSeconds(2)).release();
+    }
+
+    @Test(groups = {"unit"}, description = "An endpoint without node details is trusted while it reports ready")
+    public void testEndpointWithoutNodeList() throws IOException {
+        GridSlotScheduler scheduler = schedulerFor(GRID3_STATUS);
+
+        for (int i = 0; i < 5; i++) {
+            Assert.assertNotNull(scheduler.acquire(Duration.ofSeconds(2)).url());
+        }
+    }
+
+    private GridSlotScheduler schedulerFor(String status) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/status", exchange -> {
+            byte[] body = status.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort());
+        return new GridSlotScheduler(List.of(url), "chrome", Duration.ofMillis(50));
+    }
+
+    private static String node(String uri, String availability, int maxSessions, String... slots) {
+        return "{\"id\": \"" + uri.hashCode() + "\", \"uri\": \"" + uri + "\", \"availability\": \"" + availability
+                + "\", \"maxSessions\": " + maxSessions + ", \"slots\": [" + String.join(", ", slots) + "]}";
+    }
+
+    private static String slot(String browserName, String sessionId) {
+        return "{\"id\": {\"hostId\": \"h\", \"id\": \"" + Math.random() + "\"}, \"lastStarted\": \"1970-01-01T00:00:00Z\","
+                + " \"session\": " + (sessionId == null ? "null" : "{\"sessionId\": \"" + sessionId + "\"}")
+                + ", \"stereotype\": {\"browserName\": \"" + browserName + "\", \"platformName\": \"linux\"}}";
+    }
+}
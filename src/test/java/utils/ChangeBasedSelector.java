@@ -0,0 +1,197 @@
+package utils;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import utilities.ConfigReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Runs only the test classes affected by files changed since select.changedSince (a git revision,
+ * usually passed as -Dselect.changedSince=origin/main). A test class is affected when a changed
+ * class is reachable from it in the bytecode dependency graph.
+ * <p>
+ * Falls back to the full suite when git cannot answer, when a select.coreClasses class changes,
+ * when a class declaring compile-time constants changes (their readers hold inlined copies, not
+ * references), or when a non-Java file changes (config, fixtures, pom.xml), since no graph
+ * covers those.
+ */
+public class ChangeBasedSelector implements IMethodInterceptor {
+
+    private static final String SINCE = ConfigReader.get("select.changedSince", "").trim();
+    private static final List<String> CORE_CLASSES = Arrays.stream(ConfigReader.get("select.coreClasses",
+                    "pages.BasePage,base.*,utilities.*,utils.*").split(","))
+            .map(String::trim)
+            .filter(entry -> !entry.isEmpty())
+            .collect(Collectors.toList());
+    private static final Pattern JAVA_SOURCE = Pattern.compile("(?:^|/)src/(?:main|test|jmh)/java/(.+)\\.java$");
+    // Files that cannot change what a test does
+    private static final Pattern IRRELEVANT = Pattern.compile("(?:\\.md|\\.txt|\\.gitignore)$|^(?:test-output|reports)/");
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (SINCE.isEmpty()) {
+            return methods;
+        }
+        Set<Class<?>> testClasses = new LinkedHashSet<>();
+        for (IMethodInstance method : methods) {
+            testClasses.add(method.getMethod().getRealClass());
+        }
+        Set<Class<?>> affected = affectedClasses(testClasses);
+        if (affected == null) {
+            return methods;
+        }
+        List<IMethodInstance> selected = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            if (affected.contains(method.getMethod().getRealClass())) {
+                selected.add(method);
+            }
+        }
+        report("running " + selected.size() + " of " + methods.size() + " test methods ("
+                + affected.stream().map(Class::getSimpleName).sorted().collect(Collectors.joining(", ")) + ")");
+        return selected;
+    }
+
+    /**
+     * Test classes to run, or null for the full suite
+     */
+    private static Set<Class<?>> affectedClasses(Set<Class<?>> testClasses) {
+        List<String> changedFiles;
+        try {
+            changedFiles = changedFiles();
+        } catch (IOException e) {
+            report("git diff failed (" + e.getMessage() + "), running the full suite");
+            return null;
+        }
+
+        Set<String> changedClasses = new LinkedHashSet<>();
+        for (String file : changedFiles) {
+            Matcher source = JAVA_SOURCE.matcher(file);
+            if (source.find()) {
+                changedClasses.add(source.group(1).replace('/', '.'));
+            } else if (!IRRELEVANT.matcher(file).find()) {
+                report(file + " changed, running the full suite");
+                return null;
+            }
+        }
+        for (String changed : changedClasses) {
+            if (isCore(changed)) {
+                report("core class " + changed + " changed, running the full suite");
+                return null;
+            }
+        }
+
+        ClassDependencyGraph graph = ClassDependencyGraph.scan(classDirectories(testClasses));
+        for (String changed : changedClasses) {
+            if (graph.declaresConstants(changed)) {
+                // Its constants were inlined into the classes using them, so no edge shows who they are
+                report(changed + " declares constants and changed, running the full suite");
+                return null;
+            }
+        }
+        Set<Class<?>> affected = new LinkedHashSet<>();
+        for (Class<?> testClass : testClasses) {
+            String name = ClassDependencyGraph.topLevel(testClass.getName());
+            if (!graph.contains(name)) {
+                // Compiled somewhere we did not scan; run it rather than guess
+                affected.add(testClass);
+                continue;
+            }
+            Set<String> reached = graph.closureOf(name);
+            if (changedClasses.stream().anyMatch(reached::contains)) {
+                affected.add(testClass);
+            }
+        }
+        report(changedFiles.size() + " file(s) changed since " + SINCE + ", " + changedClasses.size() + " class(es)");
+        return affected;
+    }
+
+    private static boolean isCore(String className) {
+        for (String core : CORE_CLASSES) {
+            if (core.endsWith(".*") ? className.startsWith(core.substring(0, core.length() - 1))
+                    : className.equals(core)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tracked files changed between the revision and the working tree, plus untracked files
+     */
+    private static List<String> changedFiles() throws IOException {
+        List<String> files = new ArrayList<>(git("diff", "--name-only", SINCE, "--"));
+        files.addAll(git("ls-files", "--others", "--exclude-standard", "--full-name"));
+        return files;
+    }
+
+    private static List<String> git(String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output;
+        try (InputStream in = process.getInputStream()) {
+            output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try {
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                throw new IOException("git " + args[0] + " timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running git", e);
+        }
+        if (process.exitValue() != 0) {
+            throw new IOException("git " + String.join(" ", args) + ": " + output.trim());
+        }
+        return output.lines().map(String::trim).filter(line -> !line.isEmpty()).collect(Collectors.toList());
+    }
+
+    /**
+     * Compiled output directories of the test classes and the main code they use
+     */
+    private static Set<Path> classDirectories(Set<Class<?>> testClasses) {
+        Set<Class<?>> anchors = new LinkedHashSet<>(testClasses);
+        anchors.add(ConfigReader.class);
+        anchors.add(ChangeBasedSelector.class);
+        Set<Path> directories = new LinkedHashSet<>();
+        for (Class<?> anchor : anchors) {
+            CodeSource source = anchor.getProtectionDomain().getCodeSource();
+            if (source == null) {
+                continue;
+            }
+            try {
+                Path location = Paths.get(source.getLocation().toURI());
+                if (Files.isDirectory(location)) {
+                    directories.add(location);
+                }
+            } catch (URISyntaxException e) {
+                report("Skipping unreadable class location " + source.getLocation());
+            }
+        }
+        return directories;
+    }
+
+    private static void report(String message) {
+        System.out.println("[ChangeBasedSelector] " + message);
+    }
+}
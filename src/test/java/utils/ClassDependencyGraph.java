@@ -0,0 +1,169 @@
+package utils;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Which of our own classes each class refers to, read from the constant pools of the compiled
+ * .class files (class references plus the type descriptors of fields, methods and annotations).
+ * Nested classes are folded into their top-level class, matching one node per source file.
+ * <p>
+ * javac copies compile-time constants (static final primitives and Strings such as
+ * LoginData.VALID_EMAIL) into the classes that read them, leaving no reference behind, so no
+ * edge leads to them. Classes that declare non-private constants are listed separately
+ * ({@link #declaresConstants}) for callers to treat a change to them as affecting everything.
+ */
+final class ClassDependencyGraph {
+
+    private static final Pattern DESCRIPTOR_TYPE = Pattern.compile("L([\\w/$]+)[;<]");
+
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_STATIC = 0x0008;
+
+    private final Map<String, Set<String>> references = new HashMap<>();
+    private final Set<String> constantHolders = new HashSet<>();
+
+    private ClassDependencyGraph() {
+    }
+
+    /**
+     * Scan every .class file under the given output directories (target/classes, target/test-classes)
+     */
+    static ClassDependencyGraph scan(Collection<Path> classDirectories) {
+        ClassDependencyGraph graph = new ClassDependencyGraph();
+        Map<String, Set<String>> raw = new HashMap<>();
+        for (Path root : classDirectories) {
+            try (Stream<Path> files = Files.walk(root)) {
+                for (Path file : files.filter(path -> path.toString().endsWith(".class")).collect(Collectors.toList())) {
+                    String name = topLevel(root.relativize(file).toString()
+                            .replace('\\', '/').replaceAll("\\.class$", ""));
+                    Set<String> referenced = raw.computeIfAbsent(name, key -> new HashSet<>());
+                    if (readClassFile(file, referenced)) {
+                        graph.constantHolders.add(name);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to scan " + root, e);
+            }
+        }
+        // Keep edges between our own classes only
+        raw.forEach((name, referenced) -> graph.references.put(name, referenced.stream()
+                .map(ClassDependencyGraph::topLevel)
+                .filter(raw::containsKey)
+                .filter(target -> !target.equals(name))
+                .collect(Collectors.toSet())));
+        return graph;
+    }
+
+    boolean contains(String className) {
+        return references.containsKey(className);
+    }
+
+    /**
+     * True when the class (or a class nested in it) declares a non-private compile-time constant
+     */
+    boolean declaresConstants(String className) {
+        return constantHolders.contains(className);
+    }
+
+    /**
+     * The class itself plus everything it reaches, directly or transitively
+     */
+    Set<String> closureOf(String className) {
+        Set<String> reached = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.push(className);
+        while (!pending.isEmpty()) {
+            String current = pending.pop();
+            if (reached.add(current)) {
+                pending.addAll(references.getOrDefault(current, Set.of()));
+            }
+        }
+        return reached;
+    }
+
+    static String topLevel(String binaryName) {
+        String dotted = binaryName.replace('/', '.');
+        int nested = dotted.indexOf('$');
+        return nested < 0 ? dotted : dotted.substring(0, nested);
+    }
+
+    /**
+     * Add the class names a .class file refers to; returns whether it declares a non-private
+     * static field with a ConstantValue attribute, i.e. a constant javac inlines into its readers
+     */
+    private static boolean readClassFile(Path classFile, Set<String> found) throws IOException {
+        try (InputStream in = Files.newInputStream(classFile);
+             DataInputStream data = new DataInputStream(in)) {
+            data.readInt();                 // magic
+            data.readUnsignedShort();       // minor
+            data.readUnsignedShort();       // major
+            int count = data.readUnsignedShort();
+            String[] utf8 = new String[count];
+            for (int i = 1; i < count; i++) {
+                int tag = data.readUnsignedByte();
+                switch (tag) {
+                    case 1: // Utf8: class names and descriptors
+                        String value = data.readUTF();
+                        utf8[i] = value;
+                        Matcher matcher = DESCRIPTOR_TYPE.matcher(value);
+                        while (matcher.find()) {
+                            found.add(matcher.group(1));
+                        }
+                        if (!value.isEmpty() && value.indexOf(' ') < 0 && value.indexOf('(') < 0) {
+                            found.add(value);
+                        }
+                        break;
+                    case 5: // Long
+                    case 6: // Double take two slots
+                        data.skipBytes(8);
+                        i++;
+                        break;
+                    case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+                        data.skipBytes(4);
+                        break;
+                    case 15:
+                        data.skipBytes(3);
+                        break;
+                    case 7: case 8: case 16: case 19: case 20:
+                        data.skipBytes(2);
+                        break;
+                    default:
+                        throw new IOException("Unknown constant pool tag " + tag + " in " + classFile);
+                }
+            }
+            data.skipBytes(6);              // access flags, this class, super class
+            data.skipBytes(2 * data.readUnsignedShort());
+            boolean declaresConstants = false;
+            int fields = data.readUnsignedShort();
+            for (int f = 0; f < fields; f++) {
+                int access = data.readUnsignedShort();
+                data.skipBytes(4);          // name, descriptor
+                int attributes = data.readUnsignedShort();
+                for (int a = 0; a < attributes; a++) {
+                    String attribute = utf8[data.readUnsignedShort()];
+                    data.skipBytes(data.readInt());
+                    if ("ConstantValue".equals(attribute) && (access & ACC_STATIC) != 0 && (access & ACC_PRIVATE) == 0) {
+                        declaresConstants = true;
+                    }
+                }
+            }
+            return declaresConstants;
+        }
+    }
+}
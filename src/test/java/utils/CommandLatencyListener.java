@@ -0,0 +1,41 @@
+package utils;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+import utilities.CommandLatencyRecorder;
+import utilities.ConfigReader;
+
+import java.nio.file.Paths;
+
+/**
+ * Scopes {@link CommandLatencyRecorder} samples to the running test, logs each test's time
+ * split and writes the percentile report when the suite finishes
+ */
+public class CommandLatencyListener implements IInvokedMethodListener, ISuiteListener {
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (CommandLatencyRecorder.ENABLED && method.isTestMethod()) {
+            CommandLatencyRecorder.startTest(
+                    testResult.getTestClass().getRealClass().getSimpleName() + "." + testResult.getName());
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (CommandLatencyRecorder.ENABLED && method.isTestMethod()) {
+            TestLog.log(CommandLatencyRecorder.endTest());
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (CommandLatencyRecorder.ENABLED) {
+            CommandLatencyRecorder.writeReport(Paths.get(
+                    ConfigReader.get("metrics.commandLatency.report", "test-output/command-latency.json")));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package utils;
+
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.io.IOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.net.http.HttpTimeoutException;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sorts test failures into transient ones (the browser or the page load misbehaved) that are
+ * worth retrying, and deterministic ones that a retry would only reproduce more slowly
+ */
+public final class FailureClassifier {
+
+    public enum Kind {
+        TRANSIENT, DETERMINISTIC
+    }
+
+    // Messages of WebDriverExceptions raised when the browser or its connection went away
+    private static final String[] LOST_BROWSER_MESSAGES = {
+            "chrome not reachable", "disconnected:", "session deleted", "target window already closed",
+            "timed out receiving message from renderer", "connection refused"
+    };
+
+    private FailureClassifier() {
+    }
+
+    public static Kind classify(Throwable failure) {
+        Map<Throwable, Boolean> seen = new IdentityHashMap<>();
+        for (Throwable cause = failure; cause != null && seen.put(cause, Boolean.TRUE) == null; cause = cause.getCause()) {
+            if (cause instanceof AssertionError) {
+                // The page answered, just not with what the test expected
+                return Kind.DETERMINISTIC;
+            }
+            if (cause instanceof StaleElementReferenceException
+                    || cause instanceof NoSuchSessionException
+                    || cause instanceof SessionNotCreatedException
+                    || cause instanceof UnreachableBrowserException
+                    || isNetworkFailure(cause)) {
+                return Kind.TRANSIENT;
+            }
+            if (cause instanceof TimeoutException && isPageLoad(cause)) {
+                return Kind.TRANSIENT;
+            }
+            if (cause instanceof WebDriverException && mentionsLostBrowser(cause.getMessage())) {
+                return Kind.TRANSIENT;
+            }
+        }
+        return Kind.DETERMINISTIC;
+    }
+
+    /**
+     * Socket and HTTP transport failures only; other I/O errors, such as a missing or corrupt
+     * data file, fail again on retry
+     */
+    private static boolean isNetworkFailure(Throwable cause) {
+        if (cause instanceof SocketException
+                || cause instanceof SocketTimeoutException
+                || cause instanceof UnknownHostException
+                || cause instanceof HttpTimeoutException) {
+            return true;
+        }
+        // The JDK HTTP client reports resets and dropped connections as plain IOExceptions
+        if (cause instanceof IOException) {
+            for (StackTraceElement frame : cause.getStackTrace()) {
+                if (frame.getClassName().startsWith("jdk.internal.net.http.")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A page load timeout surfaces from get()/navigate(); a WebDriverWait timeout on an
+     * element means the page rendered without it, which a retry will not change
+     */
+    private static boolean isPageLoad(Throwable timeout) {
+        if (mentionsLostBrowser(timeout.getMessage())) {
+            return true;
+        }
+        StackTraceElement[] frames = timeout.getStackTrace();
+        for (StackTraceElement frame : frames) {
+            if ("waitForPageLoad".equals(frame.getMethodName())) {
+                return true;
+            }
+        }
+        for (StackTraceElement frame : frames) {
+            String type = frame.getClassName();
+            String method = frame.getMethodName();
+            if (type.startsWith("org.openqa.selenium.support.ui.")) {
+                return false;
+            }
+            if (type.startsWith("org.openqa.selenium.")
+                    && ("get".equals(method) || "to".equals(method) || "refresh".equals(method))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean mentionsLostBrowser(String message) {
+        if (message == null) {
+            return false;
+        }
+        String lower = message.toLowerCase(Locale.ROOT);
+        for (String fragment : LOST_BROWSER_MESSAGES) {
+            if (lower.contains(fragment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
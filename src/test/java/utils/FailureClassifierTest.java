@@ -0,0 +1,94 @@
+package utils;
+
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.NoSuchFileException;
+
+/**
+ * Retry classification of canned failures shaped like the ones Selenium and the tests raise; no browser involved
+ */
+public class FailureClassifierTest {
+
+    @Test(groups = {"unit"}, description = "A stale element is re-found on retry")
+    public void testStaleElementIsTransient() {
+        assertKind(new StaleElementReferenceException("stale element reference: stale element not found"),
+                FailureClassifier.Kind.TRANSIENT);
+    }
+
+    @Test(groups = {"unit"}, description = "A timeout raised from navigation is a slow page load")
+    public void testPageLoadTimeoutIsTransient() {
+        TimeoutException timeout = new TimeoutException("timeout: Timed out receiving message from navigation");
+        timeout.setStackTrace(new StackTraceElement[]{
+                frame("org.openqa.selenium.remote.RemoteWebDriver", "get"),
+                frame("base.AuthSessionFixture", "startAuthenticated"),
+                frame("tests.DropDownTest", "testDropdownMenuIsVisible")
+        });
+        assertKind(timeout, FailureClassifier.Kind.TRANSIENT);
+
+        TimeoutException readyState = new TimeoutException("Expected condition failed: document.readyState");
+        readyState.setStackTrace(new StackTraceElement[]{
+                frame("org.openqa.selenium.support.ui.FluentWait", "until"),
+                frame("utilities.WebDriverManagerUtil", "waitForPageLoad"),
+                frame("tests.LoginTest", "testValidLogin")
+        });
+        assertKind(readyState, FailureClassifier.Kind.TRANSIENT);
+    }
+
+    @Test(groups = {"unit"}, description = "A WebDriverWait timeout on an element means the page rendered without it")
+    public void testElementWaitTimeoutIsDeterministic() {
+        TimeoutException timeout = new TimeoutException(
+                "Expected condition failed: waiting for visibility of element located by By.id: profile-btn");
+        timeout.setStackTrace(new StackTraceElement[]{
+                frame("org.openqa.selenium.support.ui.FluentWait", "until"),
+                frame("pages.BasePage", "clickElement"),
+                frame("pages.HomePage", "clickProfileButton"),
+                frame("tests.LoginTest", "testValidLogin")
+        });
+        assertKind(timeout, FailureClassifier.Kind.DETERMINISTIC);
+    }
+
+    @Test(groups = {"unit"}, description = "A failed assertion is deterministic even when it wraps an I/O error")
+    public void testAssertionErrorIsDeterministic() {
+        assertKind(new AssertionError("expected [Welcome] but found [Login]"), FailureClassifier.Kind.DETERMINISTIC);
+        assertKind(new AssertionError("API unreachable", new ConnectException("Connection refused")),
+                FailureClassifier.Kind.DETERMINISTIC);
+    }
+
+    @Test(groups = {"unit"}, description = "A crashed or unreachable browser is transient")
+    public void testLostBrowserIsTransient() {
+        assertKind(new WebDriverException("unknown error: session deleted because of page crash"),
+                FailureClassifier.Kind.TRANSIENT);
+        assertKind(new WebDriverException("disconnected: not connected to DevTools"), FailureClassifier.Kind.TRANSIENT);
+        assertKind(new UnreachableBrowserException("Error communicating with the remote browser"),
+                FailureClassifier.Kind.TRANSIENT);
+    }
+
+    @Test(groups = {"unit"}, description = "Only network I/O is transient; a missing data file is not")
+    public void testOnlyNetworkIoIsTransient() {
+        assertKind(new UncheckedIOException("Auth request failed", new ConnectException("Connection refused")),
+                FailureClassifier.Kind.TRANSIENT);
+        assertKind(new UncheckedIOException("Auth request failed", new HttpTimeoutException("request timed out")),
+                FailureClassifier.Kind.TRANSIENT);
+        assertKind(new UncheckedIOException(new NoSuchFileException("data/auth-scenarios.xlsx")),
+                FailureClassifier.Kind.DETERMINISTIC);
+        assertKind(new IllegalStateException("Corrupt workbook", new IOException("Invalid header signature")),
+                FailureClassifier.Kind.DETERMINISTIC);
+    }
+
+    private static void assertKind(Throwable failure, FailureClassifier.Kind expected) {
+        Assert.assertEquals(FailureClassifier.classify(failure), expected, String.valueOf(failure));
+    }
+
+    private static StackTraceElement frame(String type, String method) {
+        return new StackTraceElement(type, method, null, -1);
+    }
+}
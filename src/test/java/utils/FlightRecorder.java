@@ -0,0 +1,101 @@
+package utils;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import utilities.ConfigReader;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * In-memory ring buffer of the last N screenshots taken on the current thread's session.
+ * Frames stay base64-encoded as the driver returned them; nothing is decoded or written
+ * unless the test fails.
+ */
+public final class FlightRecorder {
+
+    private static final int MAX_FRAMES = ConfigReader.getInt("screenshots.recorder.frames", 0);
+
+    public static final class Frame {
+        private final String label;
+        private final long timestamp;
+        private final String base64Png;
+
+        Frame(String label, long timestamp, String base64Png) {
+            this.label = label;
+            this.timestamp = timestamp;
+            this.base64Png = base64Png;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        String getBase64Png() {
+            return base64Png;
+        }
+    }
+
+    private static final ThreadLocal<Deque<Frame>> frames = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private FlightRecorder() {
+    }
+
+    public static boolean isEnabled() {
+        return MAX_FRAMES > 0;
+    }
+
+    /**
+     * Record a step frame; a no-op when screenshots.recorder.frames is 0
+     */
+    public static void record(WebDriver driver, String label) {
+        if (isEnabled()) {
+            capture(driver, label, MAX_FRAMES);
+        }
+    }
+
+    /**
+     * Record a frame even when step recording is disabled, e.g. the final frame of a failed test
+     */
+    static void recordFinal(WebDriver driver, String label) {
+        capture(driver, label, Math.max(1, MAX_FRAMES + 1));
+    }
+
+    /**
+     * Remove and return the recorded frames, oldest first
+     */
+    static List<Frame> drain() {
+        Deque<Frame> buffer = frames.get();
+        List<Frame> recorded = new ArrayList<>(buffer);
+        buffer.clear();
+        return recorded;
+    }
+
+    static void clear() {
+        frames.get().clear();
+    }
+
+    private static void capture(WebDriver driver, String label, int capacity) {
+        if (!(driver instanceof TakesScreenshot)) {
+            return;
+        }
+        try {
+            String png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+            Deque<Frame> buffer = frames.get();
+            while (buffer.size() >= capacity) {
+                buffer.pollFirst();
+            }
+            buffer.addLast(new Frame(label, System.currentTimeMillis(), png));
+        } catch (WebDriverException e) {
+            TestLog.log("Screenshot frame '" + label + "' skipped: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package utils;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import utilities.ConfigReader;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Orders test methods so the suite's tail is short: methods that failed last run go first
+ * (fast feedback), then the rest longest first by the per-run durations TestTimingListener
+ * keeps in {@link TestHistory}; a data-driven method counts the time of all its rows, since
+ * they run back to back. Methods with no history count as the longest known one.
+ * <p>
+ * TestNG still enforces dependsOnMethods/dependsOnGroups, and otherwise runs methods in the order
+ * the interceptors return (it ranks them by that position before their declared priority), so the
+ * method objects are never modified. With schedule.respectPriority the declared priorities stay
+ * the primary order and only ties are rearranged; a class whose methods all have distinct
+ * priorities, like LoginTest, then keeps its order. Without it the historical order applies to
+ * every independent method.
+ */
+public class HistoricalScheduler implements IMethodInterceptor {
+
+    private static final boolean ENABLED = ConfigReader.getBoolean("schedule.historical", false);
+    private static final boolean RESPECT_PRIORITY = ConfigReader.getBoolean("schedule.respectPriority", true);
+    private static final boolean LOG_PLAN = ConfigReader.getBoolean("schedule.logPlan", false);
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!ENABLED) {
+            return methods;
+        }
+        long longestKnown = 0;
+        for (IMethodInstance method : methods) {
+            longestKnown = Math.max(longestKnown, TestTimingListener.expectedDuration(method.getMethod()).orElse(0));
+        }
+        long unknownDuration = longestKnown;
+
+        Comparator<IMethodInstance> historical = Comparator
+                .comparing((IMethodInstance method) -> !failedLastRun(method.getMethod()))
+                .thenComparing(method -> -TestTimingListener.expectedDuration(method.getMethod()).orElse(unknownDuration));
+        Comparator<IMethodInstance> order = RESPECT_PRIORITY
+                ? Comparator.comparingInt((IMethodInstance method) -> method.getMethod().getPriority()).thenComparing(historical)
+                : historical;
+
+        List<IMethodInstance> ordered = new ArrayList<>(methods);
+        // Stable sort: equal methods keep the order TestNG collected them in
+        ordered.sort(order);
+        if (LOG_PLAN) {
+            StringBuilder plan = new StringBuilder();
+            for (IMethodInstance method : ordered) {
+                plan.append(plan.length() == 0 ? "" : ", ").append(method.getMethod().getMethodName());
+            }
+            System.out.println("[HistoricalScheduler] " + plan);
+        }
+        return ordered;
+    }
+
+    private static boolean failedLastRun(ITestNGMethod method) {
+        return "FAIL".equals(TestHistory.getString(TestHistory.nameOf(method), "lastStatus"));
+    }
+}
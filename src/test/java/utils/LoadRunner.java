@@ -0,0 +1,247 @@
+package utils;
+
+import base.AuthSessionFixture;
+import base.StubGalleryServer;
+import data.LoginData;
+import org.openqa.selenium.json.Json;
+import pages.AuthFormPage;
+import pages.HomePage;
+import utilities.ConfigReader;
+import utilities.LatencyHistogram;
+import utilities.WebDriverManagerUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Browser-level load test: load.users virtual users, each in its own headless browser, repeat
+ * the AuthFormPage login and/or registration flow until load.durationSeconds is up. Users start
+ * evenly over load.rampUpSeconds and pause load.thinkTimeMillis (±50%) between flows.
+ * <pre>
+ *   mvn -P load verify -Dload.options="load.users=8 load.durationSeconds=120"
+ *   java utils.LoadRunner load.scenario=mixed stub.enabled=true
+ * </pre>
+ * Arguments are key=value overrides of config.properties. A flow starts from a logged-out load
+ * of baseUrl and ends when the outcome is visible. Writes throughput, latency percentiles and
+ * error rates to load.report; exits with 1 when the error rate is above load.maxErrorRate.
+ */
+public final class LoadRunner {
+
+    private static final String RUN_ID = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<String, FlowStats> stats = new ConcurrentHashMap<>();
+    private final String scenario;
+    private final long deadline;
+    private final int thinkTimeMillis;
+
+    private LoadRunner(String scenario, long deadline, int thinkTimeMillis) {
+        this.scenario = scenario;
+        this.deadline = deadline;
+        this.thinkTimeMillis = thinkTimeMillis;
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            System.setProperty(arg.substring(0, separator).trim(), arg.substring(separator + 1).trim());
+        }
+        int users = ConfigReader.getInt("load.users", 4);
+        int rampUpSeconds = ConfigReader.getInt("load.rampUpSeconds", 0);
+        int durationSeconds = ConfigReader.getInt("load.durationSeconds", 60);
+        int thinkTimeMillis = ConfigReader.getInt("load.thinkTimeMillis", 1000);
+        String scenario = ConfigReader.get("load.scenario", "login");
+        if (!List.of("login", "register", "mixed").contains(scenario)) {
+            throw new IllegalArgumentException("load.scenario must be login, register or mixed, got " + scenario);
+        }
+
+        StubGalleryServer stub = null;
+        if (ConfigReader.getBoolean("stub.enabled", false)) {
+            stub = new StubGalleryServer(ConfigReader.getInt("stub.latencyMillis", 0));
+            System.setProperty("baseUrl", stub.start(ConfigReader.getInt("stub.port", 0)));
+        }
+        System.out.println("Load: " + users + " users, " + scenario + ", ramp-up " + rampUpSeconds + "s, duration "
+                + durationSeconds + "s, think time " + thinkTimeMillis + "ms against " + ConfigReader.get("baseUrl"));
+
+        long started = System.nanoTime();
+        LoadRunner runner = new LoadRunner(scenario, started + durationSeconds * 1_000_000_000L, thinkTimeMillis);
+        List<Thread> threads = new ArrayList<>();
+        for (int user = 0; user < users; user++) {
+            long startDelayMillis = users > 1 ? rampUpSeconds * 1000L * user / users : 0;
+            int id = user;
+            Thread thread = new Thread(() -> runner.virtualUser(id, startDelayMillis), "virtual-user-" + user);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+        if (stub != null) {
+            stub.stop();
+        }
+
+        Map<String, Object> report = runner.report(elapsedSeconds);
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("users", users);
+        settings.put("scenario", scenario);
+        settings.put("rampUpSeconds", rampUpSeconds);
+        settings.put("durationSeconds", durationSeconds);
+        settings.put("thinkTimeMillis", thinkTimeMillis);
+        settings.put("baseUrl", ConfigReader.get("baseUrl"));
+        report.put("settings", settings);
+        Path file = Paths.get(ConfigReader.get("load.report", "test-output/load-report.json"));
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.write(file, new Json().toJson(report).getBytes(StandardCharsets.UTF_8));
+        System.out.println("Load report written to " + file);
+
+        double errorRate = (double) report.get("errorRate");
+        double maxErrorRate = Double.parseDouble(ConfigReader.get("load.maxErrorRate", "1.0"));
+        System.exit(errorRate > maxErrorRate ? 1 : 0);
+    }
+
+    private void virtualUser(int user, long startDelayMillis) {
+        if (!pause(startDelayMillis)) {
+            return;
+        }
+        if (!launchBrowser(user)) {
+            return;
+        }
+        try {
+            for (long iteration = 0; System.nanoTime() < deadline; iteration++) {
+                String flow = "mixed".equals(scenario) ? (iteration % 2 == 0 ? "login" : "register") : scenario;
+                FlowStats flowStats = statsFor(flow);
+                long flowStarted = System.nanoTime();
+                try {
+                    runFlow(flow, user, iteration);
+                    flowStats.success(System.nanoTime() - flowStarted);
+                } catch (RuntimeException e) {
+                    flowStats.error(e);
+                    if (FailureClassifier.classify(e) == FailureClassifier.Kind.TRANSIENT) {
+                        // The browser may be gone; carry on with a fresh one
+                        WebDriverManagerUtil.quitDriver();
+                        if (!launchBrowser(user)) {
+                            return;
+                        }
+                    }
+                }
+                long jitter = thinkTimeMillis / 2;
+                if (!pause(thinkTimeMillis - jitter + ThreadLocalRandom.current().nextLong(2 * jitter + 1))) {
+                    break;
+                }
+            }
+        } finally {
+            WebDriverManagerUtil.quitDriver();
+        }
+    }
+
+    private boolean launchBrowser(int user) {
+        try {
+            WebDriverManagerUtil.initializeDedicatedDriver(ConfigReader.getBoolean("load.headless", true));
+            return true;
+        } catch (RuntimeException e) {
+            statsFor("launch").error(e);
+            System.err.println("virtual-user-" + user + " could not start a browser: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void runFlow(String flow, int user, long iteration) {
+        AuthSessionFixture.startLoggedOut(WebDriverManagerUtil.getDriver());
+        AuthFormPage authFormPage = new HomePage().clickProfileButton();
+        if ("login".equals(flow)) {
+            authFormPage.performLogin(LoginData.VALID_EMAIL, LoginData.VALID_PASSWORD);
+        } else {
+            String email = "load-" + RUN_ID + "-" + user + "-" + iteration + "@example.com";
+            authFormPage.switchToRegisterMode()
+                    .waitForModeTransition()
+                    .performRegistration("Load User " + user, email, LoginData.Registration.PASSWORD,
+                            LoginData.Registration.PASSWORD);
+        }
+        if (!authFormPage.isLoginSuccessful()) {
+            throw new IllegalStateException(flow + " success message did not appear");
+        }
+    }
+
+    /**
+     * Sleep unless that would run past the deadline; false when the run is over
+     */
+    private boolean pause(long millis) {
+        if (System.nanoTime() + millis * 1_000_000L >= deadline) {
+            return false;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private FlowStats statsFor(String flow) {
+        return stats.computeIfAbsent(flow, key -> new FlowStats());
+    }
+
+    private Map<String, Object> report(double elapsedSeconds) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        Map<String, Object> flows = new LinkedHashMap<>();
+        long completed = 0;
+        long errors = 0;
+        for (Map.Entry<String, FlowStats> entry : stats.entrySet()) {
+            FlowStats flow = entry.getValue();
+            completed += flow.latency.count();
+            errors += flow.errors.get();
+            flows.put(entry.getKey(), flow.summary(elapsedSeconds));
+            System.out.println(entry.getKey() + ": " + flow.summary(elapsedSeconds));
+        }
+        long attempts = completed + errors;
+        report.put("elapsedSeconds", Math.round(elapsedSeconds * 10) / 10.0);
+        report.put("completed", completed);
+        report.put("errors", errors);
+        report.put("errorRate", attempts == 0 ? 0.0 : (double) errors / attempts);
+        report.put("throughputPerSecond", Math.round(completed / elapsedSeconds * 100) / 100.0);
+        report.put("flows", flows);
+        return report;
+    }
+
+    private static final class FlowStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong errors = new AtomicLong();
+        private final Map<String, AtomicLong> errorsByType = new ConcurrentHashMap<>();
+
+        void success(long nanos) {
+            latency.record(nanos);
+        }
+
+        void error(Throwable error) {
+            errors.incrementAndGet();
+            errorsByType.computeIfAbsent(error.getClass().getSimpleName(), key -> new AtomicLong()).incrementAndGet();
+        }
+
+        Map<String, Object> summary(double elapsedSeconds) {
+            long attempts = latency.count() + errors.get();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("completed", latency.count());
+            summary.put("errors", errors.get());
+            summary.put("errorRate", attempts == 0 ? 0.0 : (double) errors.get() / attempts);
+            summary.put("throughputPerSecond", Math.round(latency.count() / elapsedSeconds * 100) / 100.0);
+            summary.put("latency", latency.summary());
+            Map<String, Long> byType = new LinkedHashMap<>();
+            errorsByType.forEach((type, count) -> byType.put(type, count.get()));
+            summary.put("errorsByType", byType);
+            return summary;
+        }
+    }
+}
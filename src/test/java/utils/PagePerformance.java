@@ -0,0 +1,324 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.json.Json;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import utilities.ConfigReader;
+import utilities.WebDriverManagerUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Page performance from inside the browser: Navigation Timing, paint timings, largest contentful
+ * paint, cumulative layout shift (largest session window) and long tasks, collected by a
+ * PerformanceObserver. Captures are taken after navigations (BaseTest) and after key page-object
+ * actions, logged to the test's report output, and checked against perf.budget.&lt;page&gt;.&lt;metric&gt;.
+ * <p>
+ * Where the driver speaks CDP the observer is registered before any page script runs; otherwise
+ * it is added on first use and sees buffered entries only, which excludes earlier long tasks.
+ * <p>
+ * Largest contentful paint and layout shift depend on the artwork and fonts a blocking.profile
+ * may drop; their budgets are not checked while one is active (run with blocking.profile=full).
+ */
+public final class PagePerformance {
+
+    public static final boolean ENABLED = ConfigReader.getBoolean("perf.enabled", false);
+
+    private static final String BLOCKING_PROFILE = WebDriverManagerUtil.activeBlockingProfile();
+    private static final Set<String> LOAD_DEPENDENT = Set.of("largestContentfulPaint", "cumulativeLayoutShift");
+
+    private static final String OBSERVER_SCRIPT =
+            "(function () {" +
+            "  if (window.__galleryPerf) { return; }" +
+            "  var perf = window.__galleryPerf = {lcp: null, shifts: [], longTasks: [], mark: null};" +
+            "  function observe(type, handle) {" +
+            "    try {" +
+            "      new PerformanceObserver(function (list) { list.getEntries().forEach(handle); })" +
+            "          .observe({type: type, buffered: true});" +
+            "    } catch (e) { /* entry type not supported */ }" +
+            "  }" +
+            "  observe('largest-contentful-paint', function (e) { perf.lcp = e.renderTime || e.startTime; });" +
+            "  observe('layout-shift', function (e) { if (!e.hadRecentInput) { perf.shifts.push({t: e.startTime, v: e.value}); } });" +
+            "  observe('longtask', function (e) { perf.longTasks.push({t: e.startTime, d: e.duration}); });" +
+            "})();";
+
+    private static final String MARK_SCRIPT = OBSERVER_SCRIPT + "window.__galleryPerf.mark = performance.now();";
+
+    private static final String CAPTURE_SCRIPT = OBSERVER_SCRIPT +
+            "var perf = window.__galleryPerf, action = arguments[0], now = performance.now();" +
+            "var from = action && perf.mark !== null ? perf.mark : 0, out = {};" +
+            "var paints = {};" +
+            "performance.getEntriesByType('paint').forEach(function (p) { paints[p.name] = p.startTime; });" +
+            "var fcp = paints['first-contentful-paint'] || 0;" +
+            // Largest burst of shifts less than 1 s apart within a 5 s window, as in the CLS definition
+            "var cls = 0, burst = 0, first = -1, prev = -1;" +
+            "perf.shifts.forEach(function (s) {" +
+            "  if (s.t < from) { return; }" +
+            "  if (first < 0 || s.t - prev > 1000 || s.t - first > 5000) { first = s.t; burst = 0; }" +
+            "  burst += s.v; prev = s.t; cls = Math.max(cls, burst);" +
+            "});" +
+            "var count = 0, total = 0, blocking = 0, lastEnd = 0;" +
+            "perf.longTasks.forEach(function (t) {" +
+            "  if (t.t < from) { return; }" +
+            "  count++; total += t.d; lastEnd = Math.max(lastEnd, t.t + t.d);" +
+            "  if (t.t >= fcp || action) { blocking += Math.max(0, t.d - 50); }" +
+            "});" +
+            "out.cumulativeLayoutShift = cls;" +
+            "out.longTaskCount = count;" +
+            "out.longTaskMillis = total;" +
+            "out.totalBlockingMillis = blocking;" +
+            "if (action) {" +
+            "  out.elapsed = now - from;" +
+            // The result is on screen (the page object's wait passed) and no long task is still running
+            "  out.interactive = Math.max(now, lastEnd) - from;" +
+            "  perf.mark = null;" +
+            "} else {" +
+            "  var nav = performance.getEntriesByType('navigation')[0];" +
+            "  if (nav) {" +
+            "    out.ttfb = nav.responseStart;" +
+            "    out.domInteractive = nav.domInteractive;" +
+            "    out.domContentLoaded = nav.domContentLoadedEventEnd;" +
+            "    if (nav.loadEventEnd > 0) { out.load = nav.loadEventEnd; }" +
+            "    out.interactive = Math.max(nav.domInteractive, lastEnd);" +
+            "  }" +
+            "  if (paints['first-paint']) { out.firstPaint = paints['first-paint']; }" +
+            "  if (fcp) { out.firstContentfulPaint = fcp; }" +
+            "  if (perf.lcp !== null) { out.largestContentfulPaint = perf.lcp; }" +
+            "}" +
+            "return out;";
+
+    private static final Set<WebDriver> PREPARED = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private static final Queue<Metrics> SAMPLES = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<Map<String, Metrics>> LAST = ThreadLocal.withInitial(HashMap::new);
+
+    public static final class Metrics {
+        private final String page;
+        private final String kind;
+        private final String url;
+        private final String test;
+        private final Map<String, Double> values;
+
+        Metrics(String page, String kind, String url, String test, Map<String, Double> values) {
+            this.page = page;
+            this.kind = kind;
+            this.url = url;
+            this.test = test;
+            this.values = Collections.unmodifiableMap(values);
+        }
+
+        public String getPage() {
+            return page;
+        }
+
+        public Map<String, Double> getValues() {
+            return values;
+        }
+
+        /**
+         * The metric in milliseconds (cumulativeLayoutShift is unitless, longTaskCount a count)
+         */
+        public double get(String metric) {
+            Double value = values.get(metric);
+            if (value == null) {
+                throw new IllegalArgumentException("No " + metric + " captured for " + page + ", have " + values.keySet());
+            }
+            return value;
+        }
+
+        /**
+         * Fail with every metric over its perf.budget.&lt;page&gt;.&lt;metric&gt; limit
+         */
+        public Metrics assertWithinBudget() {
+            List<String> violations = new ArrayList<>();
+            for (Map.Entry<String, Double> metric : values.entrySet()) {
+                String budget = ConfigReader.get("perf.budget." + page + "." + metric.getKey(), "");
+                if (!budget.isEmpty() && BLOCKING_PROFILE != null && LOAD_DEPENDENT.contains(metric.getKey())) {
+                    TestLog.log("[perf] " + page + " " + metric.getKey() + " budget not checked: blocking.profile="
+                            + BLOCKING_PROFILE + " keeps images and fonts from loading");
+                } else if (!budget.isEmpty() && metric.getValue() > Double.parseDouble(budget)) {
+                    violations.add(metric.getKey() + " " + metric.getValue() + " > " + budget);
+                }
+            }
+            if (!violations.isEmpty()) {
+                throw new AssertionError("Performance budget exceeded on " + page + ": " + String.join(", ", violations));
+            }
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return page + " " + kind + " " + values;
+        }
+    }
+
+    private PagePerformance() {
+    }
+
+    /**
+     * Register the observer for every document this session loads from now on
+     */
+    public static void prepare(WebDriver driver) {
+        if (!ENABLED || !(driver instanceof HasCdp) || !PREPARED.add(driver)) {
+            return;
+        }
+        try {
+            ((HasCdp) driver).executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", Map.of("source", OBSERVER_SCRIPT));
+        } catch (RuntimeException e) {
+            System.err.println("[PagePerformance] Could not preload the observer, using buffered entries: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Metrics of the document currently loaded, recorded under the given page name
+     */
+    public static Metrics captureNavigation(WebDriver driver, String page) {
+        return ENABLED ? capture(driver, page, false) : null;
+    }
+
+    /**
+     * Start timing a page-object action; pair with {@link #endAction}
+     */
+    public static void startAction(WebDriver driver) {
+        if (ENABLED) {
+            ((JavascriptExecutor) driver).executeScript(MARK_SCRIPT);
+        }
+    }
+
+    /**
+     * Metrics since {@link #startAction}, taken once the page object has seen the action's result
+     */
+    public static Metrics endAction(WebDriver driver, String page) {
+        return ENABLED ? capture(driver, page, true) : null;
+    }
+
+    /**
+     * The latest capture of the page on this thread
+     */
+    public static Metrics last(String page) {
+        Metrics metrics = LAST.get().get(page);
+        if (metrics == null) {
+            throw new IllegalStateException("No performance capture for " + page
+                    + (ENABLED ? " on this thread" : ", perf.enabled is off"));
+        }
+        return metrics;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Metrics capture(WebDriver driver, String page, boolean action) {
+        Map<String, Object> raw = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(CAPTURE_SCRIPT, action);
+        Map<String, Double> values = new LinkedHashMap<>();
+        raw.forEach((name, value) -> values.put(name, Math.round(((Number) value).doubleValue() * 1000) / 1000.0));
+        ITestResult result = Reporter.getCurrentTestResult();
+        Metrics metrics = new Metrics(page, action ? "action" : "navigation", driver.getCurrentUrl(),
+                result == null ? null : TestHistory.nameOf(result), values);
+        SAMPLES.add(metrics);
+        LAST.get().put(page, metrics);
+        TestLog.log("[perf] " + metrics);
+        return metrics;
+    }
+
+    /**
+     * Every sample plus per-page medians and maxima, as JSON
+     */
+    public static void writeReport(Path file) {
+        if (SAMPLES.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> samples = new ArrayList<>();
+        for (Metrics metrics : SAMPLES) {
+            Map<String, Object> sample = new LinkedHashMap<>();
+            sample.put("page", metrics.page);
+            sample.put("kind", metrics.kind);
+            sample.put("test", metrics.test);
+            sample.put("url", metrics.url);
+            sample.put("values", metrics.values);
+            samples.add(sample);
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("blockingProfile", BLOCKING_PROFILE == null ? "none" : BLOCKING_PROFILE);
+        if (BLOCKING_PROFILE != null) {
+            report.put("budgetsNotChecked", new TreeSet<>(LOAD_DEPENDENT));
+        }
+        report.put("pages", summary(true));
+        report.put("samples", samples);
+        write(file, new Json().toJson(report), false);
+    }
+
+    /**
+     * Append this run's per-page medians as one JSON line, for tracking trends across runs
+     */
+    public static void appendTrend(Path file) {
+        if (SAMPLES.isEmpty()) {
+            return;
+        }
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("timestamp", Instant.now().toString());
+        line.put("baseUrl", ConfigReader.get("baseUrl"));
+        // Runs with and without blocked resources are not comparable
+        line.put("blockingProfile", BLOCKING_PROFILE == null ? "none" : BLOCKING_PROFILE);
+        line.put("pages", summary(false));
+        write(file, new Json().toJson(line).replaceAll("\\s*\\n\\s*", " ") + System.lineSeparator(), true);
+    }
+
+    private static Map<String, Object> summary(boolean withMax) {
+        Map<String, Map<String, List<Double>>> byPage = new TreeMap<>();
+        for (Metrics metrics : SAMPLES) {
+            Map<String, List<Double>> metricValues = byPage.computeIfAbsent(metrics.page, key -> new TreeMap<>());
+            metrics.values.forEach((name, value) -> metricValues.computeIfAbsent(name, key -> new ArrayList<>()).add(value));
+        }
+        Map<String, Object> pages = new LinkedHashMap<>();
+        byPage.forEach((page, metricValues) -> {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metricValues.forEach((name, values) -> {
+                Collections.sort(values);
+                double median = values.get((values.size() - 1) / 2);
+                if (withMax) {
+                    Map<String, Object> stats = new LinkedHashMap<>();
+                    stats.put("samples", values.size());
+                    stats.put("median", median);
+                    stats.put("max", values.get(values.size() - 1));
+                    metrics.put(name, stats);
+                } else {
+                    metrics.put(name, median);
+                }
+            });
+            pages.put(page, metrics);
+        });
+        return pages;
+    }
+
+    private static void write(Path file, String content, boolean append) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            if (append) {
+                Files.write(file, content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } else {
+                Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+            }
+            System.out.println("Page performance written to " + file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write " + file, e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package utils;
+
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+import utilities.ConfigReader;
+
+import java.util.List;
+
+/**
+ * Applies parallel.mode / parallel.threadCount from config.properties (or -D overrides)
+ * to every suite, so concurrency can be tuned per CI runner without editing testng.xml.
+ */
+public class ParallelExecutionListener implements IAlterSuiteListener {
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        String mode = ConfigReader.get("parallel.mode");
+        int threadCount = ConfigReader.getInt("parallel.threadCount", 0);
+        int dataProviderThreadCount = ConfigReader.getInt("parallel.dataProviderThreadCount", 0);
+
+        for (XmlSuite suite : suites) {
+            if (mode != null && !mode.isBlank()) {
+                XmlSuite.ParallelMode parallelMode = XmlSuite.ParallelMode.getValidParallel(mode.trim());
+                if (parallelMode == null) {
+                    throw new IllegalArgumentException("Unsupported parallel.mode: " + mode
+                            + " (use none, methods, classes, tests or instances)");
+                }
+                suite.setParallel(parallelMode);
+            }
+            if (threadCount > 0) {
+                suite.setThreadCount(threadCount);
+            }
+            if (dataProviderThreadCount > 0) {
+                suite.setDataProviderThreadCount(dataProviderThreadCount);
+            }
+        }
+    }
+}
@@ -2,18 +2,53 @@ package utils;
 
 import org.testng.IRetryAnalyzer;
 import org.testng.ITestResult;
+import utilities.ConfigReader;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Retries a failed test only when {@link FailureClassifier} calls the failure transient, at most
+ * retry.maxPerTest times per test and retry.suiteBudget times across the whole suite
+ */
 public class ReRunScript implements IRetryAnalyzer {
 
+    private static final int maxCount = ConfigReader.getInt("retry.maxPerTest", 1);
+    private static final int suiteBudget = ConfigReader.getInt("retry.suiteBudget", 5);
+    private static final AtomicInteger retriesLeft = new AtomicInteger(suiteBudget);
+
     private int retryCount = 0;
-    private static final int maxCount = 1;
 
     @Override
     public boolean retry(ITestResult iTestResult) {
-        if (retryCount < maxCount){
-            retryCount++;
-            return true;
+        if (retryCount >= maxCount) {
+            return false;
+        }
+        String name = TestHistory.nameOf(iTestResult);
+        Throwable failure = iTestResult.getThrowable();
+        String cause = failure == null ? "unknown failure" : failure.getClass().getSimpleName();
+
+        if (failure == null || FailureClassifier.classify(failure) == FailureClassifier.Kind.DETERMINISTIC) {
+            TestLog.log("Not retrying " + name + ": deterministic " + cause);
+            return false;
+        }
+        if (retriesLeft.getAndUpdate(left -> Math.max(0, left - 1)) <= 0) {
+            TestLog.log("Not retrying " + name + ": suite retry budget of " + suiteBudget + " used up");
+            return false;
         }
-        return false;
+        retryCount++;
+        TestLog.log("Retrying " + name + " after transient " + cause
+                + " (" + retriesLeft.get() + " suite retries left)");
+        return true;
+    }
+
+    /**
+     * Restore the full suite budget; called when a suite starts
+     */
+    static void resetBudget() {
+        retriesLeft.set(suiteBudget);
+    }
+
+    static int retriesUsed() {
+        return suiteBudget - retriesLeft.get();
     }
 }
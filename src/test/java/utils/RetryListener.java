@@ -0,0 +1,107 @@
+package utils;
+
+import org.testng.IAnnotationTransformer;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Attaches {@link ReRunScript} to every test without its own retry analyzer and records
+ * flakiness per test in {@link TestHistory}: runs, failures by kind, retries and passes
+ * that only came on a retry. The run's retries, flaky passes and failures that survived their
+ * retries are printed when the suite finishes.
+ */
+public class RetryListener implements IAnnotationTransformer, ITestListener, ISuiteListener {
+
+    // @Test's "no analyzer" default; read from the annotation since the class itself is TestNG-internal
+    private static final Object NO_ANALYZER = noAnalyzer();
+
+    // Tests retried during this run, so a later pass can be counted as flaky
+    private final Set<String> retriedThisRun = ConcurrentHashMap.newKeySet();
+    private final Set<String> flakyThisRun = ConcurrentHashMap.newKeySet();
+    private final Set<String> failedThisRun = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+        Class<?> analyzer = annotation.getRetryAnalyzerClass();
+        if (analyzer == null || analyzer.equals(NO_ANALYZER)) {
+            annotation.setRetryAnalyzer(ReRunScript.class);
+        }
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        ReRunScript.resetBudget();
+        flakyThisRun.clear();
+        failedThisRun.clear();
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        String name = TestHistory.nameOf(result);
+        TestHistory.increment(name, "runs");
+        if (retriedThisRun.remove(name)) {
+            TestHistory.increment(name, "passedOnRetry");
+            flakyThisRun.add(name);
+        }
+        TestHistory.put(name, "lastStatus", "PASS");
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        String name = TestHistory.nameOf(result);
+        retriedThisRun.remove(name);
+        failedThisRun.add(name);
+        TestHistory.increment(name, "runs");
+        TestHistory.increment(name, "failures");
+        countFailureKind(name, result);
+        TestHistory.put(name, "lastStatus", "FAIL");
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        if (!result.wasRetried()) {
+            return;
+        }
+        // The attempt that was thrown away for a retry still failed, and transiently
+        String name = TestHistory.nameOf(result);
+        retriedThisRun.add(name);
+        TestHistory.increment(name, "retries");
+        countFailureKind(name, result);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        String summary = "[RetryListener] Retries used: " + ReRunScript.retriesUsed()
+                + "; flaky (passed on retry): " + (flakyThisRun.isEmpty() ? "none" : new TreeSet<>(flakyThisRun))
+                + "; failed: " + (failedThisRun.isEmpty() ? "none" : new TreeSet<>(failedThisRun));
+        Reporter.log(summary);
+        System.out.println(summary);
+        TestHistory.save();
+    }
+
+    private static Object noAnalyzer() {
+        try {
+            return Test.class.getMethod("retryAnalyzer").getDefaultValue();
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static void countFailureKind(String name, ITestResult result) {
+        Throwable failure = result.getThrowable();
+        boolean isTransient = failure != null
+                && FailureClassifier.classify(failure) == FailureClassifier.Kind.TRANSIENT;
+        TestHistory.increment(name, isTransient ? "transientFailures" : "deterministicFailures");
+    }
+}
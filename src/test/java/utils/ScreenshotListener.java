@@ -0,0 +1,47 @@
+package utils;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+import utilities.WebDriverManagerUtil;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Drives the screenshot pipeline: clears the flight recorder before each test, and on
+ * failure adds a final frame and hands all frames to the background writer. Runs right
+ * after the test method, before @AfterMethod releases the browser.
+ */
+public class ScreenshotListener implements IInvokedMethodListener, ISuiteListener {
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            FlightRecorder.clear();
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        if (testResult.getStatus() == ITestResult.FAILURE && WebDriverManagerUtil.isDriverInitialized()) {
+            FlightRecorder.recordFinal(WebDriverManagerUtil.getDriver(), "failure");
+            List<FlightRecorder.Frame> frames = FlightRecorder.drain();
+            String name = testResult.getTestClass().getRealClass().getSimpleName() + "." + testResult.getName();
+            ScreenshotUtil.persistFrames(name, frames);
+            TestLog.log("Queued " + frames.size() + " screenshot(s) for " + name);
+        } else {
+            FlightRecorder.clear();
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        ScreenshotUtil.awaitPendingWrites(Duration.ofSeconds(30));
+    }
+}
@@ -4,27 +4,85 @@ import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 
-import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Screenshots are taken on the test thread (the driver requires it) but decoded and
+ * written on a background thread so the test does not wait for disk I/O.
+ */
 public class ScreenshotUtil {
+
+    private static final Path SCREENSHOT_DIR = Paths.get("reports/screenshots");
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private static final ThreadPoolExecutor writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "screenshot-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
     public static void captureScreenshot(WebDriver driver, String fileName) {
         try {
-            // Define the path where the screenshot will be saved
-            Path screenshotPath = Paths.get("reports/screenshots/" + fileName + ".png");
-
-            // ✅ Create parent directories if they don't exist
-            Files.createDirectories(screenshotPath.getParent());
+            byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            write(SCREENSHOT_DIR.resolve(sanitize(fileName) + ".png"), png);
+        } catch (Exception e) {
+            TestLog.log("Screenshot failed: " + e.getMessage());
+        }
+    }
 
-            // Take screenshot and save
-            File screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-            Files.copy(screenshot.toPath(), screenshotPath);
+    /**
+     * Persist flight recorder frames as name-NN-label.png, oldest first
+     */
+    static void persistFrames(String name, List<FlightRecorder.Frame> frames) {
+        String prefix = sanitize(name) + "-" + LocalDateTime.now().format(STAMP);
+        for (int i = 0; i < frames.size(); i++) {
+            FlightRecorder.Frame frame = frames.get(i);
+            String fileName = String.format("%s-%02d-%s.png", prefix, i + 1, sanitize(frame.getLabel()));
+            String base64Png = frame.getBase64Png();
+            writer.execute(() -> writeNow(SCREENSHOT_DIR.resolve(fileName), Base64.getDecoder().decode(base64Png)));
+        }
+    }
 
-            System.out.println("Screenshot saved at: " + screenshotPath);
+    /**
+     * Block until queued screenshots are on disk, e.g. before the JVM exits at suite end
+     */
+    static void awaitPendingWrites(Duration timeout) {
+        try {
+            Future<?> marker = writer.submit(() -> { });
+            marker.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
         } catch (Exception e) {
-            System.out.println("Screenshot failed: " + e.getMessage());
+            System.err.println("Screenshots still pending after " + timeout.getSeconds() + "s: " + e.getMessage());
         }
     }
+
+    private static void write(Path path, byte[] png) {
+        writer.execute(() -> writeNow(path, png));
+    }
+
+    private static void writeNow(Path path, byte[] png) {
+        try {
+            Files.createDirectories(path.getParent());
+            Files.write(path, png);
+            System.out.println("Screenshot saved at: " + path);
+        } catch (IOException e) {
+            System.err.println("Screenshot failed: " + path + ": " + e.getMessage());
+        }
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]+", "_");
+    }
 }
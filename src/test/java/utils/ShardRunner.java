@@ -0,0 +1,164 @@
+package utils;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import utilities.ConfigReader;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Runs a suite as N shards in forked JVMs and merges their testng-results.xml into one report.
+ * <pre>
+ *   mvn -P shards verify -Dshards=4                    fork 4 local JVMs
+ *   java utils.ShardRunner merge out.xml a.xml b.xml   merge results from CI machines
+ * </pre>
+ * CI machines run their shard directly with mvn test -Dshard.index=i -Dshard.count=N.
+ */
+public final class ShardRunner {
+
+    private static final Path OUTPUT = Paths.get("target", "shards");
+
+    private ShardRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && "merge".equals(args[0])) {
+            List<Path> inputs = new ArrayList<>();
+            for (int i = 2; i < args.length; i++) {
+                inputs.add(Paths.get(args[i]));
+            }
+            merge(Paths.get(args[1]), inputs);
+            return;
+        }
+        int shards = args.length > 0 ? Integer.parseInt(args[0]) : ConfigReader.getInt("shard.count", 2);
+        String suiteXml = args.length > 1 ? args[1] : "testng.xml";
+        System.exit(run(shards, suiteXml));
+    }
+
+    /**
+     * Fork one JVM per shard, wait for all of them and merge their results; returns the worst exit code
+     */
+    static int run(int shards, String suiteXml) throws Exception {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> processes = new ArrayList<>();
+        List<Path> results = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) {
+            Path dir = OUTPUT.resolve("shard-" + shard);
+            Files.createDirectories(dir);
+            List<String> command = new ArrayList<>();
+            command.add(java);
+            command.addAll(forwardedProperties());
+            command.add("-Dshard.index=" + shard);
+            command.add("-Dshard.count=" + shards);
+            // Per-shard reports instead of every JVM overwriting test-output/
+            command.add("-Dmetrics.commandLatency.report=" + dir.resolve("command-latency.json"));
+            command.add("-Dmetrics.launch.report=" + dir.resolve("browser-launch.json"));
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add("org.testng.TestNG");
+            command.add("-d");
+            command.add(dir.toString());
+            command.add(suiteXml);
+            processes.add(new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(dir.resolve("shard.log").toFile())
+                    .start());
+            results.add(dir.resolve("testng-results.xml"));
+            System.out.println("Started shard " + (shard + 1) + "/" + shards + ", log in " + dir.resolve("shard.log"));
+        }
+
+        int worst = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            int exit = processes.get(shard).waitFor();
+            System.out.println("Shard " + (shard + 1) + "/" + shards + " finished with exit code " + exit);
+            worst = Math.max(worst, exit);
+        }
+        List<Path> existing = new ArrayList<>();
+        for (Path result : results) {
+            if (Files.isRegularFile(result)) {
+                existing.add(result);
+            } else {
+                System.err.println("No results from " + result.getParent());
+                worst = Math.max(worst, 1);
+            }
+        }
+        merge(OUTPUT.resolve("testng-results.xml"), existing);
+        return worst;
+    }
+
+    /**
+     * Concatenate the suites of several testng-results.xml files and add up their counters
+     */
+    static void merge(Path target, List<Path> inputs) throws Exception {
+        DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        Document merged = builder.newDocument();
+        Element root = merged.createElement("testng-results");
+        merged.appendChild(root);
+        Element reporterOutput = merged.createElement("reporter-output");
+        root.appendChild(reporterOutput);
+
+        Map<String, Long> counters = new LinkedHashMap<>();
+        for (Path input : inputs) {
+            Element shardRoot = builder.parse(input.toFile()).getDocumentElement();
+            NamedNodeMap attributes = shardRoot.getAttributes();
+            for (int i = 0; i < attributes.getLength(); i++) {
+                Node attribute = attributes.item(i);
+                try {
+                    counters.merge(attribute.getNodeName(), Long.parseLong(attribute.getNodeValue()), Long::sum);
+                } catch (NumberFormatException e) {
+                    // Only numeric counters are summed
+                }
+            }
+            NodeList children = shardRoot.getChildNodes();
+            for (int i = 0; i < children.getLength(); i++) {
+                Node child = children.item(i);
+                if ("reporter-output".equals(child.getNodeName())) {
+                    NodeList lines = child.getChildNodes();
+                    for (int j = 0; j < lines.getLength(); j++) {
+                        reporterOutput.appendChild(merged.importNode(lines.item(j), true));
+                    }
+                } else if (child.getNodeType() == Node.ELEMENT_NODE) {
+                    root.appendChild(merged.importNode(child, true));
+                }
+            }
+        }
+        counters.forEach((name, value) -> root.setAttribute(name, String.valueOf(value)));
+
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.transform(new DOMSource(merged), new StreamResult(target.toFile()));
+        System.out.println("Merged " + inputs.size() + " shard result(s) into " + target + " " + counters);
+    }
+
+    /**
+     * -D overrides of config.properties keys given to this JVM, so every shard runs the same configuration
+     */
+    private static List<String> forwardedProperties() {
+        List<String> forwarded = new ArrayList<>();
+        for (String key : new TreeSet<>(ConfigReader.keys())) {
+            String value = System.getProperty(key);
+            if (value != null && !key.startsWith("shard.")) {
+                forwarded.add("-D" + key + "=" + value);
+            }
+        }
+        return forwarded;
+    }
+}
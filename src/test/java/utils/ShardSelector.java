@@ -0,0 +1,135 @@
+package utils;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import utilities.ConfigReader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps this JVM's share of the test methods when shard.count is above 1. Methods linked by
+ * dependsOnMethods / dependsOnGroups form one unit that stays on a single shard; units are
+ * bin-packed longest first (by durations in {@link TestHistory}, where a data-driven method's
+ * duration covers all of its rows) onto the least loaded shard.
+ * <p>
+ * Every shard computes the same plan on its own, so all shards must see the same test
+ * classes and the same history file.
+ */
+public class ShardSelector implements IMethodInterceptor {
+
+    private static final int SHARD_COUNT = ConfigReader.getInt("shard.count", 1);
+    private static final int SHARD_INDEX = ConfigReader.getInt("shard.index", 0);
+    private static final long DEFAULT_DURATION = ConfigReader.getInt("shard.defaultDurationMillis", 10_000);
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (SHARD_COUNT <= 1) {
+            return methods;
+        }
+        if (SHARD_INDEX < 0 || SHARD_INDEX >= SHARD_COUNT) {
+            throw new IllegalArgumentException("shard.index must be between 0 and " + (SHARD_COUNT - 1)
+                    + ", got " + SHARD_INDEX);
+        }
+
+        Map<String, String> unitOf = dependencyUnits(methods);
+        Map<String, Long> unitDurations = new TreeMap<>();
+        for (IMethodInstance method : methods) {
+            String unit = unitOf.get(method.getMethod().getQualifiedName());
+            unitDurations.merge(unit, durationOf(method.getMethod()), Long::sum);
+        }
+
+        // Longest processing time first; ties broken by name so every shard builds the same plan
+        List<Map.Entry<String, Long>> units = new ArrayList<>(unitDurations.entrySet());
+        units.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        long[] load = new long[SHARD_COUNT];
+        Map<String, Integer> shardOf = new HashMap<>();
+        for (Map.Entry<String, Long> unit : units) {
+            int lightest = 0;
+            for (int shard = 1; shard < SHARD_COUNT; shard++) {
+                if (load[shard] < load[lightest]) {
+                    lightest = shard;
+                }
+            }
+            load[lightest] += unit.getValue();
+            shardOf.put(unit.getKey(), lightest);
+        }
+
+        List<IMethodInstance> selected = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            if (shardOf.get(unitOf.get(method.getMethod().getQualifiedName())) == SHARD_INDEX) {
+                selected.add(method);
+            }
+        }
+        System.out.println("[ShardSelector] shard " + (SHARD_INDEX + 1) + "/" + SHARD_COUNT + ": "
+                + selected.size() + " of " + methods.size() + " methods, estimated load (ms) "
+                + Arrays.toString(load));
+        return selected;
+    }
+
+    /**
+     * Qualified method name to the name of its dependency unit (the smallest member name)
+     */
+    private static Map<String, String> dependencyUnits(List<IMethodInstance> methods) {
+        Map<String, String> parent = new LinkedHashMap<>();
+        Map<String, List<String>> byGroup = new HashMap<>();
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod method = instance.getMethod();
+            parent.put(method.getQualifiedName(), method.getQualifiedName());
+            for (String group : method.getGroups()) {
+                byGroup.computeIfAbsent(group, key -> new ArrayList<>()).add(method.getQualifiedName());
+            }
+        }
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod method = instance.getMethod();
+            for (String dependency : method.getMethodsDependedUpon()) {
+                if (parent.containsKey(dependency)) {
+                    union(parent, method.getQualifiedName(), dependency);
+                }
+            }
+            for (String group : method.getGroupsDependedUpon()) {
+                for (String member : byGroup.getOrDefault(group, List.of())) {
+                    union(parent, method.getQualifiedName(), member);
+                }
+            }
+        }
+        Map<String, String> units = new HashMap<>();
+        for (String name : parent.keySet()) {
+            units.put(name, find(parent, name));
+        }
+        return units;
+    }
+
+    private static String find(Map<String, String> parent, String name) {
+        String root = name;
+        while (!parent.get(root).equals(root)) {
+            root = parent.get(root);
+        }
+        parent.put(name, root);
+        return root;
+    }
+
+    private static void union(Map<String, String> parent, String first, String second) {
+        String a = find(parent, first);
+        String b = find(parent, second);
+        if (!a.equals(b)) {
+            // The lexicographically smaller root wins, keeping unit names deterministic
+            if (a.compareTo(b) < 0) {
+                parent.put(b, a);
+            } else {
+                parent.put(a, b);
+            }
+        }
+    }
+
+    private static long durationOf(ITestNGMethod method) {
+        return TestTimingListener.expectedDuration(method).orElse(DEFAULT_DURATION);
+    }
+}
@@ -0,0 +1,139 @@
+package utils;
+
+import org.openqa.selenium.json.Json;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import utilities.ConfigReader;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Per-test statistics kept across runs in history.file (test-history/ by default, not versioned).
+ * Loaded on first use and written back once at the end of each suite. Several JVMs (shards) may
+ * share the file: each save merges only the tests this JVM touched into what is on disk.
+ */
+public final class TestHistory {
+
+    private static final Path FILE = Paths.get(ConfigReader.get("history.file", "test-history/test-history.json"));
+    private static final Json JSON = new Json();
+
+    private static final Set<String> touched = new HashSet<>();
+
+    private static Map<String, Map<String, Object>> records;
+
+    private TestHistory() {
+    }
+
+    /**
+     * Stable key for a test method: simple class name plus method name
+     */
+    public static String nameOf(ITestResult result) {
+        return nameOf(result.getMethod());
+    }
+
+    public static String nameOf(ITestNGMethod method) {
+        return method.getRealClass().getSimpleName() + "." + method.getMethodName();
+    }
+
+    public static synchronized void increment(String test, String counter) {
+        Map<String, Object> record = record(test);
+        touched.add(test);
+        record.put(counter, asLong(record.get(counter)) + 1);
+    }
+
+    public static synchronized void put(String test, String field, Object value) {
+        Map<String, Object> record = record(test);
+        touched.add(test);
+        record.put(field, value);
+        record.put("updatedAt", Instant.now().toString());
+    }
+
+    public static synchronized long getLong(String test, String field) {
+        Map<String, Object> record = load().get(test);
+        return record == null ? 0 : asLong(record.get(field));
+    }
+
+    public static synchronized String getString(String test, String field) {
+        Map<String, Object> record = load().get(test);
+        Object value = record == null ? null : record.get(field);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Write the tests touched by this JVM back, on top of whatever other JVMs saved meanwhile
+     */
+    public static synchronized void save() {
+        if (records == null || touched.isEmpty()) {
+            return;
+        }
+        Path dir = FILE.toAbsolutePath().getParent();
+        try {
+            Files.createDirectories(dir);
+            try (FileChannel lockFile = FileChannel.open(dir.resolve(FILE.getFileName() + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lockFile.lock()) {
+                Map<String, Map<String, Object>> merged = read();
+                for (String test : touched) {
+                    merged.put(test, records.get(test));
+                }
+                Path temp = Files.createTempFile(dir, FILE.getFileName().toString(), ".tmp");
+                Files.write(temp, JSON.toJson(merged).getBytes(StandardCharsets.UTF_8));
+                Files.move(temp, FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                records = merged;
+                touched.clear();
+            }
+        } catch (IOException e) {
+            System.err.println("Could not write test history " + FILE + ": " + e.getMessage());
+        }
+    }
+
+    private static Map<String, Object> record(String test) {
+        return load().computeIfAbsent(test, key -> new LinkedHashMap<>());
+    }
+
+    private static Map<String, Map<String, Object>> load() {
+        if (records == null) {
+            records = read();
+        }
+        return records;
+    }
+
+    private static Map<String, Map<String, Object>> read() {
+        Map<String, Map<String, Object>> stored = new TreeMap<>();
+        if (!Files.isRegularFile(FILE)) {
+            return stored;
+        }
+        try {
+            Map<String, Object> json = JSON.toType(
+                    new String(Files.readAllBytes(FILE), StandardCharsets.UTF_8), Json.MAP_TYPE);
+            json.forEach((test, value) -> {
+                if (value instanceof Map) {
+                    Map<String, Object> record = new LinkedHashMap<>();
+                    ((Map<?, ?>) value).forEach((field, fieldValue) -> record.put(String.valueOf(field), fieldValue));
+                    stored.put(test, record);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable test history " + FILE + ": " + e.getMessage());
+        }
+        return stored;
+    }
+
+    private static long asLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+}
@@ -0,0 +1,44 @@
+package utils;
+
+import org.testng.Reporter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-thread log channel. Lines go to the TestNG report immediately and are echoed
+ * to the console as one block per invocation, so parallel tests never interleave.
+ */
+public final class TestLog {
+
+    private static final ThreadLocal<List<String>> buffer = ThreadLocal.withInitial(ArrayList::new);
+
+    private TestLog() {
+    }
+
+    public static void log(String message) {
+        Reporter.log(message);
+        buffer.get().add(message);
+    }
+
+    /**
+     * Print everything this thread logged since the last flush under a single header
+     */
+    static void flush(String header) {
+        List<String> lines = buffer.get();
+        if (lines.isEmpty()) {
+            return;
+        }
+        StringBuilder block = new StringBuilder()
+                .append('[').append(Thread.currentThread().getName()).append("] ")
+                .append(header).append(System.lineSeparator());
+        for (String line : lines) {
+            block.append("    ").append(line).append(System.lineSeparator());
+        }
+        lines.clear();
+        synchronized (System.out) {
+            System.out.print(block);
+            System.out.flush();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package utils;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how long each test method took in {@link TestHistory}, as a running average
+ * (durationMillis) that shard planning and scheduling read on the next run. A method's
+ * duration is the sum of all its invocations in the run, so a data-driven method counts
+ * every row rather than one row's time.
+ */
+public class TestTimingListener implements ITestListener, ISuiteListener {
+
+    private final Map<String, Long> runTotals = new ConcurrentHashMap<>();
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        runTotals.forEach((name, duration) -> {
+            long previous = TestHistory.getLong(name, "durationMillis");
+            // Halve the weight of older runs so a changed test settles within a few runs
+            TestHistory.put(name, "durationMillis", previous == 0 ? duration : (previous + duration) / 2);
+            TestHistory.put(name, "lastDurationMillis", duration);
+        });
+        runTotals.clear();
+        TestHistory.save();
+    }
+
+    /**
+     * Expected time for all of a method's invocations in one run, or empty when it has no history
+     */
+    static OptionalLong expectedDuration(ITestNGMethod method) {
+        String name = TestHistory.nameOf(method);
+        return TestHistory.getString(name, "durationMillis") == null
+                ? OptionalLong.empty() : OptionalLong.of(TestHistory.getLong(name, "durationMillis"));
+    }
+
+    private void record(ITestResult result) {
+        long duration = Math.max(0, result.getEndMillis() - result.getStartMillis());
+        runTotals.merge(TestHistory.nameOf(result), duration, Long::sum);
+    }
+}
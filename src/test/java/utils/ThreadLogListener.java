@@ -0,0 +1,31 @@
+package utils;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+/**
+ * Flushes the {@link TestLog} buffer of the current thread after every test and configuration method
+ */
+public class ThreadLogListener implements IInvokedMethodListener {
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        String name = testResult.getTestClass().getRealClass().getSimpleName() + "."
+                + method.getTestMethod().getMethodName();
+        TestLog.flush(name + " [" + statusOf(testResult) + "]");
+    }
+
+    private static String statusOf(ITestResult result) {
+        switch (result.getStatus()) {
+            case ITestResult.SUCCESS:
+                return "PASS";
+            case ITestResult.FAILURE:
+                return "FAIL";
+            case ITestResult.SKIP:
+                return "SKIP";
+            default:
+                return "RUNNING";
+        }
+    }
+}